@@ -1,6 +1,12 @@
 package me.lubomirstankov.gotcraftproxychat.bungeecord;
 
+import me.lubomirstankov.gotcraftproxychat.bungeecord.command.StatsCommand;
 import me.lubomirstankov.gotcraftproxychat.bungeecord.service.BungeeMessengerService;
+import me.lubomirstankov.gotcraftproxychat.bungeecord.service.NetworkConfigService;
+import me.lubomirstankov.gotcraftproxychat.bungeecord.service.PlayerDirectoryService;
+import me.lubomirstankov.gotcraftproxychat.bungeecord.service.RosterService;
+import me.lubomirstankov.gotcraftproxychat.common.metrics.Metrics;
+import me.lubomirstankov.gotcraftproxychat.common.protocol.CapabilityRegistry;
 import me.lubomirstankov.gotcraftproxychat.common.util.DIContainer;
 import net.md_5.bungee.api.plugin.Plugin;
 
@@ -10,22 +16,60 @@ import net.md_5.bungee.api.plugin.Plugin;
 public final class GotCraftBungee extends Plugin {
 
     private BungeeMessengerService messengerService;
+    private NetworkConfigService configService;
+    private CapabilityRegistry capabilities;
+    private PlayerDirectoryService directoryService;
+    private RosterService rosterService;
 
     @Override
     public void onEnable() {
+        // Load the central configuration
+        configService = new NetworkConfigService(this);
+
+        // What each backend announced in its handshake, checked before sending it optional frames
+        capabilities = CapabilityRegistry.fromConfig(configService.getConfigManager());
+        DIContainer.register(CapabilityRegistry.class, capabilities);
+
+        // Start pushing the configuration to backends
+        configService.initialize();
+        DIContainer.register(NetworkConfigService.class, configService);
+
+        // Track which server every player is on, for private message routing
+        directoryService = new PlayerDirectoryService(this);
+        directoryService.initialize();
+        DIContainer.register(PlayerDirectoryService.class, directoryService);
+
+        // Publish the network roster to backends
+        rosterService = new RosterService(this);
+        rosterService.initialize();
+        DIContainer.register(RosterService.class, rosterService);
+
         // Initialize messenger service
         messengerService = new BungeeMessengerService(this);
         messengerService.initialize();
         DIContainer.register(BungeeMessengerService.class, messengerService);
 
+        getProxy().getPluginManager().registerCommand(this, new StatsCommand());
+
         getLogger().info("GotCraftProxyChat-BungeeCord has been enabled!");
         getLogger().info("Listening on channel: gotcraft:chat");
     }
 
     @Override
     public void onDisable() {
+        if (messengerService != null) {
+            messengerService.shutdown();
+        }
+        if (rosterService != null) {
+            rosterService.shutdown();
+        }
+        if (configService != null) {
+            configService.shutdown();
+        }
+
         // Clear DI container
         DIContainer.clear();
+        Metrics.clear();
 
         getLogger().info("GotCraftProxyChat-BungeeCord has been disabled!");
     }
@@ -37,5 +81,37 @@ public final class GotCraftBungee extends Plugin {
     public BungeeMessengerService getMessengerService() {
         return messengerService;
     }
+
+    /**
+     * Get the network configuration service
+     * @return The configuration service
+     */
+    public NetworkConfigService getConfigService() {
+        return configService;
+    }
+
+    /**
+     * Get what each backend announced in its handshake
+     * @return The capability registry
+     */
+    public CapabilityRegistry getCapabilities() {
+        return capabilities;
+    }
+
+    /**
+     * Get the player directory service
+     * @return The directory service
+     */
+    public PlayerDirectoryService getDirectoryService() {
+        return directoryService;
+    }
+
+    /**
+     * Get the roster service
+     * @return The roster service
+     */
+    public RosterService getRosterService() {
+        return rosterService;
+    }
 }
 
@@ -0,0 +1,32 @@
+package me.lubomirstankov.gotcraftproxychat.bungeecord.command;
+
+import me.lubomirstankov.gotcraftproxychat.common.metrics.Metrics;
+import net.md_5.bungee.api.ChatColor;
+import net.md_5.bungee.api.CommandSender;
+import net.md_5.bungee.api.chat.TextComponent;
+import net.md_5.bungee.api.plugin.Command;
+
+import java.util.Map;
+
+/**
+ * Command to show the proxy's forwarding and filtering counters
+ */
+public class StatsCommand extends Command {
+
+    public StatsCommand() {
+        super("gcstats", "gotcraftproxychat.stats", "gcproxystats");
+    }
+
+    @Override
+    public void execute(CommandSender sender, String[] args) {
+        Map<String, Long> values = Metrics.snapshot();
+        if (values.isEmpty()) {
+            sender.sendMessage(new TextComponent(ChatColor.GRAY + "No chat traffic recorded yet."));
+            return;
+        }
+
+        sender.sendMessage(new TextComponent(ChatColor.GOLD + "GotCraftProxyChat proxy statistics:"));
+        values.forEach((name, value) -> sender.sendMessage(
+                new TextComponent(ChatColor.GRAY + " " + name + ": " + ChatColor.WHITE + value)));
+    }
+}
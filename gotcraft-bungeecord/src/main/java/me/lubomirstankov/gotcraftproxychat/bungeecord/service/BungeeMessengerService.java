@@ -1,58 +1,130 @@
 package me.lubomirstankov.gotcraftproxychat.bungeecord.service;
 
 import me.lubomirstankov.gotcraftproxychat.bungeecord.GotCraftBungee;
-import me.lubomirstankov.gotcraftproxychat.common.model.ChatPacket;
+import me.lubomirstankov.gotcraftproxychat.common.directory.PlayerDirectory;
+import me.lubomirstankov.gotcraftproxychat.common.proxy.ProxyChatPipeline;
+import me.lubomirstankov.gotcraftproxychat.common.proxy.ProxyPlatform;
 import net.md_5.bungee.api.config.ServerInfo;
 import net.md_5.bungee.api.connection.Server;
+import net.md_5.bungee.api.event.PlayerDisconnectEvent;
 import net.md_5.bungee.api.event.PluginMessageEvent;
+import net.md_5.bungee.api.event.ServerDisconnectEvent;
 import net.md_5.bungee.api.plugin.Listener;
 import net.md_5.bungee.event.EventHandler;
+import net.md_5.bungee.event.EventPriority;
 
-public class BungeeMessengerService implements Listener {
+import java.util.Collection;
+
+/**
+ * Feeds gotcraft:chat plugin messages from backends into the shared {@link ProxyChatPipeline}
+ */
+public class BungeeMessengerService implements Listener, ProxyPlatform<ServerInfo> {
 
     private static final String CHANNEL = "gotcraft:chat";
     private final GotCraftBungee plugin;
+    private final ProxyChatPipeline<ServerInfo> pipeline;
 
     public BungeeMessengerService(GotCraftBungee plugin) {
         this.plugin = plugin;
+        this.pipeline = new ProxyChatPipeline<>(this, plugin.getConfigService().getConfigManager(),
+                plugin.getCapabilities(), plugin.getConfigService()::getConfig);
     }
 
     public void initialize() {
         plugin.getProxy().registerChannel(CHANNEL);
         plugin.getProxy().getPluginManager().registerListener(plugin, this);
+        pipeline.initialize();
     }
 
-    @EventHandler
+    // Runs on the Netty thread that read the message, so it only claims the message and queues it.
+    // Last in line so no other plugin can un-cancel it: a client must never reach a backend on our channel,
+    // or it could forge config snapshots and private message deliveries.
+    @EventHandler(priority = EventPriority.HIGHEST)
     public void onPluginMessage(PluginMessageEvent event) {
         if (!event.getTag().equals(CHANNEL)) {
             return;
         }
 
+        // Never pass our channel through to clients or other servers
+        event.setCancelled(true);
+
         if (!(event.getSender() instanceof Server)) {
             return;
         }
 
-        Server senderServer = (Server) event.getSender();
-        String originServerName = senderServer.getInfo().getName();
+        pipeline.receive(((Server) event.getSender()).getInfo().getName(), event.getData());
+    }
+
+    @EventHandler
+    public void onPlayerDisconnect(PlayerDisconnectEvent event) {
+        pipeline.playerLeft(event.getPlayer().getUniqueId());
+    }
 
-        try {
-            ChatPacket chatPacket = ChatPacket.deserialize(event.getData());
-            forwardPacketToServers(chatPacket, originServerName);
-        } catch (Exception e) {
-            plugin.getLogger().severe("Failed to process plugin message: " + e.getMessage());
+    // Fired for switches, quits and dropped backend connections alike; the leaving player may still be listed
+    @EventHandler
+    public void onServerDisconnect(ServerDisconnectEvent event) {
+        ServerInfo server = event.getTarget();
+        if (server.getPlayers().stream().allMatch(event.getPlayer()::equals)) {
+            plugin.getCapabilities().forget(server.getName());
         }
     }
 
-    private void forwardPacketToServers(ChatPacket packet, String originServerName) {
-        byte[] data = packet.serialize();
+    @Override
+    public Collection<ServerInfo> getServers() {
+        return plugin.getProxy().getServers().values();
+    }
 
-        for (ServerInfo server : plugin.getProxy().getServers().values()) {
-            if (server.getName().equalsIgnoreCase(originServerName)) {
-                continue;
-            }
+    @Override
+    public ServerInfo getServer(String serverName) {
+        return plugin.getProxy().getServerInfo(serverName);
+    }
 
-            server.sendData(CHANNEL, data);
-        }
+    @Override
+    public String getName(ServerInfo server) {
+        return server.getName();
+    }
+
+    // Queued by BungeeCord until someone is online there
+    @Override
+    public boolean send(ServerInfo server, byte[] frame) {
+        server.sendData(CHANNEL, frame);
+        return true;
     }
-}
 
+    @Override
+    public PlayerDirectory<ServerInfo> getDirectory() {
+        return plugin.getDirectoryService().getDirectory();
+    }
+
+    @Override
+    public void resyncRoster(String serverName) {
+        plugin.getRosterService().resync(serverName);
+    }
+
+    @Override
+    public void pushConfig(String serverName) {
+        plugin.getConfigService().push(serverName);
+    }
+
+    @Override
+    public void info(String message) {
+        plugin.getLogger().info(message);
+    }
+
+    @Override
+    public void warning(String message) {
+        plugin.getLogger().warning(message);
+    }
+
+    @Override
+    public void error(String message) {
+        plugin.getLogger().severe(message);
+    }
+
+    /**
+     * Stop the forwarding workers of all lanes, letting queued messages finish briefly
+     */
+    public void shutdown() {
+        pipeline.shutdown();
+    }
+}
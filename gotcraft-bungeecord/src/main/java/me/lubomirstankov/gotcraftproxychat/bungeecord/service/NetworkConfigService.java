@@ -0,0 +1,140 @@
+package me.lubomirstankov.gotcraftproxychat.bungeecord.service;
+
+import me.lubomirstankov.gotcraftproxychat.bungeecord.GotCraftBungee;
+import me.lubomirstankov.gotcraftproxychat.common.config.ConfigManager;
+import me.lubomirstankov.gotcraftproxychat.common.config.ConfigWatcher;
+import me.lubomirstankov.gotcraftproxychat.common.config.NetworkConfig;
+import me.lubomirstankov.gotcraftproxychat.common.protocol.Capabilities;
+import net.md_5.bungee.api.config.ServerInfo;
+import net.md_5.bungee.api.event.ServerConnectedEvent;
+import net.md_5.bungee.api.plugin.Listener;
+import net.md_5.bungee.event.EventHandler;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Owns the central network configuration and pushes per-server snapshots to backends
+ */
+public class NetworkConfigService implements Listener {
+
+    private static final String CHANNEL = "gotcraft:chat";
+    private final GotCraftBungee plugin;
+    // The parsed file and the config validated from it, always replaced together
+    private final AtomicReference<Loaded> current = new AtomicReference<>();
+
+    // Snapshots are versioned per proxy instance, so backends never compare against another instance's clock
+    private final long epoch = System.currentTimeMillis();
+    private final AtomicLong versions = new AtomicLong();
+    private ConfigWatcher watcher;
+
+    public NetworkConfigService(GotCraftBungee plugin) {
+        this.plugin = plugin;
+        Path configPath = plugin.getDataFolder().toPath().resolve("config.yml");
+        ConfigManager configManager = new ConfigManager(configPath);
+        configManager.load(plugin.getResourceAsStream("config.yml"));
+        current.set(new Loaded(configManager, build(configManager)));
+    }
+
+    public void initialize() {
+        plugin.getProxy().getPluginManager().registerListener(plugin, this);
+
+        watcher = new ConfigWatcher(getConfigManager().getConfigPath(), this::reload,
+                e -> plugin.getLogger().severe("Failed to reload configuration: " + e.getMessage()));
+        try {
+            watcher.start();
+        } catch (IOException e) {
+            plugin.getLogger().warning("Could not watch config.yml for changes: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Get the current network configuration
+     * @return The configuration snapshot in effect
+     */
+    public NetworkConfig getConfig() {
+        return current.get().config;
+    }
+
+    /**
+     * Get the parsed configuration file the current network configuration was built from
+     * @return The configuration manager, replaced on every successful reload
+     */
+    public ConfigManager getConfigManager() {
+        return current.get().manager;
+    }
+
+    /**
+     * Re-read the configuration file, validate it and push it to every connected backend
+     * Runs on the watcher thread; the previous configuration stays active if validation fails
+     */
+    public void reload() {
+        // Parsed and validated aside; anything thrown here leaves the current file and config in effect
+        ConfigManager configManager = new ConfigManager(getConfigManager().getConfigPath());
+        configManager.reload();
+        NetworkConfig config = build(configManager);
+        current.set(new Loaded(configManager, config));
+        plugin.getLogger().info("Configuration reloaded (version " + config.getVersion() + "), pushing to backends");
+
+        for (ServerInfo server : plugin.getProxy().getServers().values()) {
+            // Servers without players cannot receive plugin messages; they get the config when someone joins
+            if (!server.getPlayers().isEmpty() && supportsConfigPush(server.getName())) {
+                server.sendData(CHANNEL, config.snapshotFor(server.getName()).serialize(), false);
+            }
+        }
+    }
+
+    /**
+     * Send the current configuration to one backend, e.g. once it has announced itself
+     * @param serverName The server
+     */
+    public void push(String serverName) {
+        ServerInfo server = plugin.getProxy().getServerInfo(serverName);
+        if (server != null && supportsConfigPush(serverName)) {
+            server.sendData(CHANNEL, getConfig().snapshotFor(server.getName()).serialize());
+        }
+    }
+
+    @EventHandler
+    public void onServerConnected(ServerConnectedEvent event) {
+        String serverName = event.getServer().getInfo().getName();
+        if (supportsConfigPush(serverName)) {
+            event.getServer().sendData(CHANNEL, getConfig().snapshotFor(serverName).serialize());
+        }
+    }
+
+    public void shutdown() {
+        if (watcher != null) {
+            watcher.close();
+        }
+    }
+
+    // Older backends do not know config frames, and unknown ones get the config once they announce themselves
+    private boolean supportsConfigPush(String serverName) {
+        return plugin.getCapabilities().get(serverName).supports(Capabilities.FEATURE_CONFIG_PUSH);
+    }
+
+    private NetworkConfig build(ConfigManager configManager) {
+        NetworkConfig config = NetworkConfig.fromConfig(configManager, epoch, versions.incrementAndGet());
+
+        for (String name : config.getConfiguredServers()) {
+            boolean known = plugin.getProxy().getServers().keySet().stream().anyMatch(name::equalsIgnoreCase);
+            if (!known) {
+                plugin.getLogger().warning("config.yml references unknown server '" + name + "'");
+            }
+        }
+        return config;
+    }
+
+    private static final class Loaded {
+        private final ConfigManager manager;
+        private final NetworkConfig config;
+
+        private Loaded(ConfigManager manager, NetworkConfig config) {
+            this.manager = manager;
+            this.config = config;
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package me.lubomirstankov.gotcraftproxychat.bungeecord.service;
+
+import me.lubomirstankov.gotcraftproxychat.bungeecord.GotCraftBungee;
+import me.lubomirstankov.gotcraftproxychat.common.directory.PlayerDirectory;
+import me.lubomirstankov.gotcraftproxychat.common.metrics.Metrics;
+import net.md_5.bungee.api.config.ServerInfo;
+import net.md_5.bungee.api.connection.ProxiedPlayer;
+import net.md_5.bungee.api.event.PlayerDisconnectEvent;
+import net.md_5.bungee.api.event.ServerConnectedEvent;
+import net.md_5.bungee.api.event.TabCompleteEvent;
+import net.md_5.bungee.api.plugin.Listener;
+import net.md_5.bungee.event.EventHandler;
+
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Keeps the network-wide player directory up to date and completes player names for private message commands
+ */
+public class PlayerDirectoryService implements Listener {
+
+    private static final int MAX_SUGGESTIONS = 100;
+
+    // Backend commands whose first argument is a player anywhere on the network
+    private static final Set<String> PLAYER_COMMANDS = Set.of("gmsg", "gtell", "gw");
+
+    private final GotCraftBungee plugin;
+    private final PlayerDirectory<ServerInfo> directory = new PlayerDirectory<>();
+
+    public PlayerDirectoryService(GotCraftBungee plugin) {
+        this.plugin = plugin;
+    }
+
+    public void initialize() {
+        // Players already online when the plugin is (re)loaded
+        for (ProxiedPlayer player : plugin.getProxy().getPlayers()) {
+            if (player.getServer() != null) {
+                directory.update(player.getUniqueId(), player.getName(), player.getServer().getInfo());
+            }
+        }
+
+        Metrics.gauge("directory.players", directory::size);
+        plugin.getProxy().getPluginManager().registerListener(plugin, this);
+    }
+
+    /**
+     * Get the player directory
+     * @return The directory
+     */
+    public PlayerDirectory<ServerInfo> getDirectory() {
+        return directory;
+    }
+
+    // Fired both on first connect and after every server switch
+    @EventHandler
+    public void onServerConnected(ServerConnectedEvent event) {
+        ProxiedPlayer player = event.getPlayer();
+        directory.update(player.getUniqueId(), player.getName(), event.getServer().getInfo());
+    }
+
+    @EventHandler
+    public void onPlayerDisconnect(PlayerDisconnectEvent event) {
+        directory.remove(event.getPlayer().getUniqueId());
+    }
+
+    // Answered by the proxy, so suggestions cover every server and never reach the backend
+    @EventHandler
+    public void onTabComplete(TabCompleteEvent event) {
+        if (event.isCancelled() || !event.getSuggestions().isEmpty()) {
+            return;
+        }
+
+        String cursor = event.getCursor();
+        if (!cursor.startsWith("/")) {
+            return;
+        }
+
+        String[] parts = cursor.substring(1).split(" ", -1);
+        if (parts.length != 2) {
+            return;
+        }
+
+        String command = parts[0].toLowerCase(Locale.ROOT);
+        command = command.substring(command.indexOf(':') + 1);
+        if (PLAYER_COMMANDS.contains(command)) {
+            event.getSuggestions().addAll(directory.complete(parts[1], MAX_SUGGESTIONS));
+        }
+    }
+}
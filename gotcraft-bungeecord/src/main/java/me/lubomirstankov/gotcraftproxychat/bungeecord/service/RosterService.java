@@ -0,0 +1,141 @@
+package me.lubomirstankov.gotcraftproxychat.bungeecord.service;
+
+import me.lubomirstankov.gotcraftproxychat.bungeecord.GotCraftBungee;
+import me.lubomirstankov.gotcraftproxychat.common.config.ConfigManager;
+import me.lubomirstankov.gotcraftproxychat.common.directory.NetworkRoster;
+import me.lubomirstankov.gotcraftproxychat.common.metrics.Metrics;
+import me.lubomirstankov.gotcraftproxychat.common.protocol.Capabilities;
+import me.lubomirstankov.gotcraftproxychat.common.protocol.Fragmenter;
+import net.md_5.bungee.api.config.ServerInfo;
+import net.md_5.bungee.api.connection.ProxiedPlayer;
+import net.md_5.bungee.api.event.PlayerDisconnectEvent;
+import net.md_5.bungee.api.event.ServerConnectedEvent;
+import net.md_5.bungee.api.plugin.Listener;
+import net.md_5.bungee.api.scheduler.ScheduledTask;
+import net.md_5.bungee.event.EventHandler;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Publishes the network roster to backends as batched deltas with periodic full snapshots
+ */
+public class RosterService implements Listener {
+
+    private static final String CHANNEL = "gotcraft:chat";
+    private static final long RESYNC_COOLDOWN_MILLIS = 1_000L;
+
+    private final GotCraftBungee plugin;
+    private final NetworkRoster roster = new NetworkRoster();
+    private final Map<String, Long> lastResync = new ConcurrentHashMap<>();
+    private ScheduledTask flushTask;
+    private ScheduledTask snapshotTask;
+
+    public RosterService(GotCraftBungee plugin) {
+        this.plugin = plugin;
+    }
+
+    public void initialize() {
+        for (ProxiedPlayer player : plugin.getProxy().getPlayers()) {
+            if (player.getServer() != null) {
+                roster.update(player.getUniqueId(), player.getName(), player.getServer().getInfo().getName());
+            }
+        }
+
+        plugin.getProxy().getPluginManager().registerListener(plugin, this);
+
+        ConfigManager config = plugin.getConfigService().getConfigManager();
+        long flushMillis = Math.max(50, config.getInt("roster.flush-millis", 200));
+        long snapshotSeconds = Math.max(10, config.getInt("roster.snapshot-interval-seconds", 300));
+
+        flushTask = plugin.getProxy().getScheduler().schedule(plugin, this::flush,
+                flushMillis, flushMillis, TimeUnit.MILLISECONDS);
+        snapshotTask = plugin.getProxy().getScheduler().schedule(plugin, this::broadcastSnapshot,
+                snapshotSeconds, snapshotSeconds, TimeUnit.SECONDS);
+    }
+
+    @EventHandler
+    public void onServerConnected(ServerConnectedEvent event) {
+        ProxiedPlayer player = event.getPlayer();
+        roster.update(player.getUniqueId(), player.getName(), event.getServer().getInfo().getName());
+    }
+
+    @EventHandler
+    public void onPlayerDisconnect(PlayerDisconnectEvent event) {
+        roster.remove(event.getPlayer().getUniqueId());
+    }
+
+    /**
+     * Send a full snapshot to a backend whose mirror fell behind
+     * @param serverName The requesting server
+     */
+    public void resync(String serverName) {
+        if (!supportsRoster(serverName)) {
+            return;
+        }
+
+        long now = System.currentTimeMillis();
+        Long last = lastResync.put(serverName, now);
+        if (last != null && now - last < RESYNC_COOLDOWN_MILLIS) {
+            return;
+        }
+
+        ServerInfo server = plugin.getProxy().getServerInfo(serverName);
+        if (server != null) {
+            Metrics.counter("roster.resyncs").increment();
+            send(server, Fragmenter.split(roster.snapshot()), true);
+        }
+    }
+
+    private void flush() {
+        try {
+            byte[] delta = roster.drainDelta();
+            if (delta != null) {
+                Metrics.counter("roster.deltas").increment();
+                broadcast(Fragmenter.split(delta));
+            }
+        } catch (Exception e) {
+            plugin.getLogger().severe("Failed to publish roster changes: " + e.getMessage());
+        }
+    }
+
+    private void broadcastSnapshot() {
+        try {
+            Metrics.counter("roster.snapshots").increment();
+            broadcast(Fragmenter.split(roster.snapshot()));
+        } catch (Exception e) {
+            plugin.getLogger().severe("Failed to publish roster snapshot: " + e.getMessage());
+        }
+    }
+
+    // Empty servers cannot receive plugin messages; their mirror catches up by resync when someone joins
+    private void broadcast(List<byte[]> frames) {
+        for (ServerInfo server : plugin.getProxy().getServers().values()) {
+            if (!server.getPlayers().isEmpty() && supportsRoster(server.getName())) {
+                send(server, frames, false);
+            }
+        }
+    }
+
+    // Older backends do not know roster frames, and unknown ones get a snapshot once they announce themselves
+    private boolean supportsRoster(String serverName) {
+        return plugin.getCapabilities().get(serverName).supports(Capabilities.FEATURE_ROSTER);
+    }
+
+    private void send(ServerInfo server, List<byte[]> frames, boolean queue) {
+        for (byte[] frame : frames) {
+            server.sendData(CHANNEL, frame, queue);
+        }
+    }
+
+    public void shutdown() {
+        if (flushTask != null) {
+            flushTask.cancel();
+        }
+        if (snapshotTask != null) {
+            snapshotTask.cancel();
+        }
+    }
+}
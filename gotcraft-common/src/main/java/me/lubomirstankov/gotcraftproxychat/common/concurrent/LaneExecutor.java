@@ -0,0 +1,130 @@
+package me.lubomirstankov.gotcraftproxychat.common.concurrent;
+
+import me.lubomirstankov.gotcraftproxychat.common.config.ConfigManager;
+import me.lubomirstankov.gotcraftproxychat.common.metrics.Latency;
+import me.lubomirstankov.gotcraftproxychat.common.metrics.Metrics;
+import me.lubomirstankov.gotcraftproxychat.common.model.Lane;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One {@link StripedExecutor} per lane, so a backlog of normal or bulk traffic never delays priority traffic
+ * The priority lane has unbounded queues and is never shed; the bulk lane is small and sheds its oldest tasks first.
+ * Time spent queued is recorded per lane as "lane.&lt;name&gt;.queue".
+ */
+public class LaneExecutor {
+
+    private final Map<Lane, StripedExecutor> executors = new EnumMap<>(Lane.class);
+    private final Map<Lane, Latency> queueLatency = new EnumMap<>(Lane.class);
+
+    private LaneExecutor() {
+    }
+
+    /**
+     * Create the executor from a config section
+     * The normal lane uses the section's own "threads", "queue-capacity" and "overflow" keys;
+     * "lanes.priority.threads" and "lanes.bulk.*" configure the other two
+     * @param name The thread name prefix
+     * @param configManager The loaded configuration
+     * @param path The section path, e.g. "forwarding"
+     * @return The executor
+     * @throws IllegalArgumentException If a value is out of range
+     */
+    public static LaneExecutor fromConfig(String name, ConfigManager configManager, String path) {
+        LaneExecutor executor = new LaneExecutor();
+
+        int priorityThreads = Math.max(1, configManager.getInt(path + ".lanes.priority.threads", 1));
+        executor.executors.put(Lane.PRIORITY, new StripedExecutor(name + " (priority)", priorityThreads, 0,
+                StripedExecutor.Overflow.DROP_NEWEST));
+
+        executor.executors.put(Lane.NORMAL, StripedExecutor.fromConfig(name, configManager, path));
+
+        int bulkThreads = Math.max(1, configManager.getInt(path + ".lanes.bulk.threads", 1));
+        int bulkCapacity = configManager.getInt(path + ".lanes.bulk.queue-capacity", 256);
+        if (bulkCapacity < 1) {
+            throw new IllegalArgumentException(path + ".lanes.bulk.queue-capacity must be at least 1");
+        }
+        StripedExecutor.Overflow bulkOverflow = StripedExecutor.Overflow.parse(
+                configManager.getString(path + ".lanes.bulk.overflow", "drop-oldest"));
+        executor.executors.put(Lane.BULK, new StripedExecutor(name + " (bulk)", bulkThreads, bulkCapacity, bulkOverflow));
+
+        for (Lane lane : Lane.values()) {
+            executor.queueLatency.put(lane, Metrics.latency(metricName(lane, "queue")));
+        }
+        return executor;
+    }
+
+    /**
+     * Queue a task on the lane's worker owning the key
+     * @param lane The lane
+     * @param key The ordering key; tasks are only ordered relative to others with the same key and lane
+     * @param task The task
+     * @return false if a task was dropped because the lane's queue was full, or the executor is shut down
+     */
+    public boolean execute(Lane lane, Object key, Runnable task) {
+        Latency latency = queueLatency.get(lane);
+        long queuedAt = System.nanoTime();
+        boolean accepted = executors.get(lane).execute(key, () -> {
+            latency.recordSince(queuedAt);
+            task.run();
+        });
+        if (!accepted) {
+            Metrics.counter(metricName(lane, "dropped")).increment();
+        }
+        return accepted;
+    }
+
+    /**
+     * Get the number of tasks waiting in one lane
+     * @param lane The lane
+     * @return The queued task count
+     */
+    public int getQueuedTasks(Lane lane) {
+        return executors.get(lane).getQueuedTasks();
+    }
+
+    /**
+     * Get the number of tasks waiting across all lanes
+     * @return The queued task count
+     */
+    public int getQueuedTasks() {
+        int queued = 0;
+        for (StripedExecutor executor : executors.values()) {
+            queued += executor.getQueuedTasks();
+        }
+        return queued;
+    }
+
+    /**
+     * Register a "lane.&lt;name&gt;.queued" gauge for every lane
+     */
+    public void registerGauges() {
+        for (Lane lane : Lane.values()) {
+            Metrics.gauge(metricName(lane, "queued"), () -> getQueuedTasks(lane));
+        }
+    }
+
+    /**
+     * Stop all lanes, letting queued tasks finish briefly
+     * @param timeout The maximum time to wait for each worker
+     * @param unit The timeout unit
+     */
+    public void shutdown(long timeout, TimeUnit unit) {
+        for (StripedExecutor executor : executors.values()) {
+            executor.shutdown(timeout, unit);
+        }
+    }
+
+    /**
+     * Build a per-lane metric name
+     * @param lane The lane
+     * @param metric The metric suffix, e.g. "queue"
+     * @return The name, e.g. "lane.priority.queue"
+     */
+    public static String metricName(Lane lane, String metric) {
+        return "lane." + lane.name().toLowerCase(Locale.ROOT) + "." + metric;
+    }
+}
@@ -0,0 +1,152 @@
+package me.lubomirstankov.gotcraftproxychat.common.concurrent;
+
+import me.lubomirstankov.gotcraftproxychat.common.config.ConfigManager;
+
+import java.util.Locale;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fixed set of single-threaded workers, each with its own bounded queue
+ * Tasks with the same key always run on the same worker, so they run in submission order;
+ * different keys spread across workers
+ */
+public class StripedExecutor {
+
+    /**
+     * What to do when a stripe's queue is full
+     */
+    public enum Overflow {
+        /** Reject the new task */
+        DROP_NEWEST,
+        /** Discard the oldest queued task to make room for the new one */
+        DROP_OLDEST;
+
+        /**
+         * Parse a config value such as "drop-newest"
+         * @param value The config value
+         * @return The policy
+         * @throws IllegalArgumentException If the value is unknown
+         */
+        public static Overflow parse(String value) {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT).replace('-', '_'));
+        }
+    }
+
+    private final ThreadPoolExecutor[] stripes;
+    private final Overflow overflow;
+
+    /**
+     * Create the executor and start its workers
+     * @param name The thread name prefix
+     * @param stripeCount The number of workers
+     * @param queueCapacity The queue capacity of each worker, 0 for unbounded queues that never drop
+     * @param overflow The policy when a queue is full
+     */
+    public StripedExecutor(String name, int stripeCount, int queueCapacity, Overflow overflow) {
+        this.stripes = new ThreadPoolExecutor[stripeCount];
+        this.overflow = overflow;
+
+        for (int i = 0; i < stripeCount; i++) {
+            String threadName = name + " #" + (i + 1);
+            stripes[i] = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                    queueCapacity > 0 ? new ArrayBlockingQueue<>(queueCapacity) : new LinkedBlockingQueue<>(), runnable -> {
+                        Thread thread = new Thread(runnable, threadName);
+                        thread.setDaemon(true);
+                        return thread;
+                    }, new ThreadPoolExecutor.AbortPolicy());
+            stripes[i].prestartCoreThread();
+        }
+    }
+
+    /**
+     * Create an executor from a config section with "threads", "queue-capacity" and "overflow" keys
+     * @param name The thread name prefix
+     * @param configManager The loaded configuration
+     * @param path The section path, e.g. "forwarding"
+     * @return The executor
+     * @throws IllegalArgumentException If a value is out of range
+     */
+    public static StripedExecutor fromConfig(String name, ConfigManager configManager, String path) {
+        int threads = configManager.getInt(path + ".threads", 0);
+        if (threads <= 0) {
+            threads = Math.max(2, Math.min(8, Runtime.getRuntime().availableProcessors()));
+        }
+
+        int queueCapacity = configManager.getInt(path + ".queue-capacity", 1024);
+        if (queueCapacity < 1) {
+            throw new IllegalArgumentException(path + ".queue-capacity must be at least 1");
+        }
+
+        Overflow overflow = Overflow.parse(configManager.getString(path + ".overflow", "drop-newest"));
+        return new StripedExecutor(name, threads, queueCapacity, overflow);
+    }
+
+    /**
+     * Queue a task on the worker owning the key
+     * @param key The ordering key, e.g. the origin server name
+     * @param task The task
+     * @return false if a task was dropped because the queue was full (the new one or the oldest one),
+     *         or the new task was rejected because the executor is shut down
+     */
+    public boolean execute(Object key, Runnable task) {
+        ThreadPoolExecutor stripe = stripes[Math.floorMod(key.hashCode(), stripes.length)];
+        try {
+            stripe.execute(task);
+            return true;
+        } catch (RejectedExecutionException e) {
+            if (overflow == Overflow.DROP_NEWEST || stripe.isShutdown()) {
+                return false;
+            }
+        }
+
+        stripe.getQueue().poll();
+        try {
+            stripe.execute(task);
+        } catch (RejectedExecutionException ignored) {
+            // Lost the freed slot to another producer; the new task is dropped instead
+        }
+        return false;
+    }
+
+    /**
+     * Get the number of tasks waiting across all workers
+     * @return The queued task count
+     */
+    public int getQueuedTasks() {
+        int queued = 0;
+        for (ThreadPoolExecutor stripe : stripes) {
+            queued += stripe.getQueue().size();
+        }
+        return queued;
+    }
+
+    /**
+     * Get the number of workers
+     * @return The stripe count
+     */
+    public int getStripeCount() {
+        return stripes.length;
+    }
+
+    /**
+     * Stop accepting tasks and wait briefly for queued ones to finish
+     * @param timeout The maximum time to wait for each worker
+     * @param unit The timeout unit
+     */
+    public void shutdown(long timeout, TimeUnit unit) {
+        for (ThreadPoolExecutor stripe : stripes) {
+            stripe.shutdown();
+        }
+        try {
+            for (ThreadPoolExecutor stripe : stripes) {
+                stripe.awaitTermination(timeout, unit);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -5,7 +5,9 @@ import org.yaml.snakeyaml.Yaml;
 import java.io.*;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -13,7 +15,8 @@ import java.util.Map;
  */
 public class ConfigManager {
 
-    private Map<String, Object> config;
+    // Replaced as a whole on reload, so readers always see a complete configuration
+    private volatile Map<String, Object> config;
     private final Path configPath;
 
     public ConfigManager(Path configPath) {
@@ -34,13 +37,7 @@ public class ConfigManager {
             }
 
             // Load configuration
-            Yaml yaml = new Yaml();
-            try (InputStream is = Files.newInputStream(configPath)) {
-                config = yaml.load(is);
-                if (config == null) {
-                    config = new HashMap<>();
-                }
-            }
+            config = parse();
         } catch (IOException e) {
             throw new RuntimeException("Failed to load configuration", e);
         }
@@ -51,18 +48,29 @@ public class ConfigManager {
      */
     public void reload() {
         try {
-            Yaml yaml = new Yaml();
-            try (InputStream is = Files.newInputStream(configPath)) {
-                config = yaml.load(is);
-                if (config == null) {
-                    config = new HashMap<>();
-                }
-            }
+            // Parse fully before swapping so a broken file never leaves a half-loaded config behind
+            config = parse();
         } catch (IOException e) {
             throw new RuntimeException("Failed to reload configuration", e);
         }
     }
 
+    private Map<String, Object> parse() throws IOException {
+        Yaml yaml = new Yaml();
+        try (InputStream is = Files.newInputStream(configPath)) {
+            Map<String, Object> loaded = yaml.load(is);
+            return loaded != null ? loaded : new HashMap<>();
+        }
+    }
+
+    /**
+     * Get the path of the configuration file
+     * @return The configuration path
+     */
+    public Path getConfigPath() {
+        return configPath;
+    }
+
     /**
      * Get a configuration value by path (e.g., "chat.enabled")
      * @param path The configuration path
@@ -107,6 +115,35 @@ public class ConfigManager {
         return value instanceof Boolean ? (Boolean) value : defaultValue;
     }
 
+    /**
+     * Get an integer value
+     * @param path The configuration path
+     * @param defaultValue Default value if not found
+     * @return The integer value
+     */
+    public int getInt(String path, int defaultValue) {
+        Object value = get(path);
+        return value instanceof Number ? ((Number) value).intValue() : defaultValue;
+    }
+
+    /**
+     * Get a list of strings
+     * @param path The configuration path
+     * @return The string list, or empty list if not found
+     */
+    public List<String> getStringList(String path) {
+        Object value = get(path);
+        List<String> result = new ArrayList<>();
+        if (value instanceof List) {
+            for (Object item : (List<?>) value) {
+                if (item != null) {
+                    result.add(item.toString());
+                }
+            }
+        }
+        return result;
+    }
+
     /**
      * Get a map value
      * @param path The configuration path
@@ -0,0 +1,149 @@
+package me.lubomirstankov.gotcraftproxychat.common.config;
+
+import me.lubomirstankov.gotcraftproxychat.common.protocol.FrameType;
+import me.lubomirstankov.gotcraftproxychat.common.protocol.ProtocolIO;
+
+import java.io.*;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compact per-server view of the proxy's central configuration, pushed to backends over the chat channel
+ */
+public class ConfigSnapshot {
+
+    private final long epoch;
+    private final long version;
+    private final String serverName;
+    private final String serverPrefix;
+    private final List<String> otherPrefixes;
+
+    public ConfigSnapshot(long epoch, long version, String serverName, String serverPrefix, List<String> otherPrefixes) {
+        this.epoch = epoch;
+        this.version = version;
+        this.serverName = serverName;
+        this.serverPrefix = serverPrefix;
+        this.otherPrefixes = List.copyOf(otherPrefixes);
+    }
+
+    /**
+     * Get the proxy instance that issued this snapshot; a restarted proxy starts a new epoch
+     * @return The epoch
+     */
+    public long getEpoch() {
+        return epoch;
+    }
+
+    /**
+     * Get the version of this snapshot within its epoch
+     * @return The version, counting up from 1 on every reload
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Check whether this snapshot should replace another
+     * Versions only order snapshots of the same epoch; a snapshot from another epoch comes from a restarted proxy
+     * and always replaces the previous one.
+     * @param other The snapshot currently in effect, or null
+     * @return true if this snapshot is newer
+     */
+    public boolean isNewerThan(ConfigSnapshot other) {
+        return other == null || epoch != other.epoch || version > other.version;
+    }
+
+    /**
+     * Get the name the proxy knows this backend by
+     * @return The server name
+     */
+    public String getServerName() {
+        return serverName;
+    }
+
+    /**
+     * Get the configured prefix, or null if the proxy does not define one for this server
+     * @return The server prefix
+     */
+    public String getServerPrefix() {
+        return serverPrefix;
+    }
+
+    /**
+     * Get the distinct prefixes the proxy configures for the other servers, which chat from them arrives with
+     * @return The prefixes, empty if the proxy predates them
+     */
+    public List<String> getOtherPrefixes() {
+        return otherPrefixes;
+    }
+
+    /**
+     * Serialize the snapshot to a CONFIG_SNAPSHOT frame
+     * @return The serialized byte array
+     */
+    public byte[] serialize() {
+        try (ByteArrayOutputStream bos = new ByteArrayOutputStream();
+             DataOutputStream dos = new DataOutputStream(bos)) {
+
+            dos.writeByte(FrameType.CONFIG_SNAPSHOT);
+            dos.writeLong(epoch);
+            dos.writeLong(version);
+            ProtocolIO.writeString(dos, serverName);
+            dos.writeBoolean(serverPrefix != null);
+            if (serverPrefix != null) {
+                ProtocolIO.writeString(dos, serverPrefix);
+            }
+            // Trailing, so older backends that stop reading after the prefix still accept the frame
+            ProtocolIO.writeVarInt(dos, otherPrefixes.size());
+            for (String prefix : otherPrefixes) {
+                ProtocolIO.writeString(dos, prefix);
+            }
+
+            return bos.toByteArray();
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to serialize ConfigSnapshot", e);
+        }
+    }
+
+    /**
+     * Deserialize a CONFIG_SNAPSHOT frame
+     * @param data The byte array
+     * @return The deserialized snapshot
+     */
+    public static ConfigSnapshot deserialize(byte[] data) {
+        try (DataInputStream dis = new DataInputStream(new ByteArrayInputStream(data))) {
+            if (dis.readByte() != FrameType.CONFIG_SNAPSHOT) {
+                throw new IOException("Not a config snapshot frame");
+            }
+
+            long epoch = dis.readLong();
+            long version = dis.readLong();
+            String serverName = ProtocolIO.readString(dis);
+            String serverPrefix = dis.readBoolean() ? ProtocolIO.readString(dis) : null;
+
+            List<String> otherPrefixes = new ArrayList<>();
+            if (dis.available() > 0) {
+                // Each prefix takes at least its length byte, so the count is bounded by the input that is left
+                int count = ProtocolIO.readLength(dis);
+                for (int i = 0; i < count; i++) {
+                    otherPrefixes.add(ProtocolIO.readString(dis));
+                }
+            }
+
+            return new ConfigSnapshot(epoch, version, serverName, serverPrefix, otherPrefixes);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to deserialize ConfigSnapshot: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "ConfigSnapshot{" +
+                "epoch=" + epoch +
+                ", version=" + version +
+                ", serverName='" + serverName + '\'' +
+                ", serverPrefix='" + serverPrefix + '\'' +
+                ", otherPrefixes=" + otherPrefixes.size() +
+                '}';
+    }
+}
@@ -0,0 +1,98 @@
+package me.lubomirstankov.gotcraftproxychat.common.config;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Watches a configuration file and runs a callback on a background thread when it changes
+ */
+public class ConfigWatcher implements AutoCloseable {
+
+    // Editors often write a file in several steps; wait for them to settle before reloading
+    private static final long DEBOUNCE_MILLIS = 250L;
+
+    private final Path file;
+    private final Runnable onChange;
+    private final Consumer<Exception> onError;
+    private WatchService watchService;
+    private Thread thread;
+
+    public ConfigWatcher(Path file, Runnable onChange, Consumer<Exception> onError) {
+        this.file = file.toAbsolutePath();
+        this.onChange = onChange;
+        this.onError = onError;
+    }
+
+    /**
+     * Start watching the file
+     * @throws IOException If the watch service cannot be created
+     */
+    public void start() throws IOException {
+        watchService = FileSystems.getDefault().newWatchService();
+        file.getParent().register(watchService,
+                StandardWatchEventKinds.ENTRY_CREATE,
+                StandardWatchEventKinds.ENTRY_MODIFY);
+
+        thread = new Thread(this::run, "GotCraft Config Watcher");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private void run() {
+        try {
+            while (true) {
+                WatchKey key = watchService.take();
+                boolean changed = containsOurFile(key);
+                key.reset();
+                if (!changed) continue;
+
+                // Swallow the burst of events from the same save
+                WatchKey next;
+                while ((next = watchService.poll(DEBOUNCE_MILLIS, TimeUnit.MILLISECONDS)) != null) {
+                    next.pollEvents();
+                    next.reset();
+                }
+
+                try {
+                    onChange.run();
+                } catch (Exception e) {
+                    onError.accept(e);
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException ignored) {
+            // Shutting down
+        }
+    }
+
+    private boolean containsOurFile(WatchKey key) {
+        boolean found = false;
+        for (WatchEvent<?> event : key.pollEvents()) {
+            Object context = event.context();
+            if (context instanceof Path && ((Path) context).getFileName().equals(file.getFileName())) {
+                found = true;
+            }
+        }
+        return found;
+    }
+
+    @Override
+    public void close() {
+        if (thread != null) {
+            thread.interrupt();
+        }
+        if (watchService != null) {
+            try {
+                watchService.close();
+            } catch (IOException ignored) {
+            }
+        }
+    }
+}
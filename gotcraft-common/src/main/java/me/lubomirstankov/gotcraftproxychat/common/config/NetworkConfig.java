@@ -0,0 +1,130 @@
+package me.lubomirstankov.gotcraftproxychat.common.config;
+
+import me.lubomirstankov.gotcraftproxychat.common.filter.FloodFilter;
+import me.lubomirstankov.gotcraftproxychat.common.filter.WordFilter;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Immutable, validated view of the proxy's central configuration
+ */
+public class NetworkConfig {
+
+    private final long epoch;
+    private final long version;
+    private final Map<String, String> prefixes;
+    private final Map<String, Set<String>> routes;
+    private final FloodFilter.Settings floodSettings;
+    private final WordFilter wordFilter;
+
+    private NetworkConfig(long epoch, long version, Map<String, String> prefixes, Map<String, Set<String>> routes,
+                          FloodFilter.Settings floodSettings, WordFilter wordFilter) {
+        this.epoch = epoch;
+        this.version = version;
+        this.prefixes = prefixes;
+        this.routes = routes;
+        this.floodSettings = floodSettings;
+        this.wordFilter = wordFilter;
+    }
+
+    /**
+     * Build and validate a network config from a loaded proxy configuration
+     * @param configManager The loaded configuration
+     * @param epoch Identifies the proxy instance, see {@link ConfigSnapshot#getEpoch()}
+     * @param version The version within the epoch to stamp on pushed snapshots
+     * @return The network config
+     * @throws IllegalArgumentException If the configuration is malformed
+     */
+    public static NetworkConfig fromConfig(ConfigManager configManager, long epoch, long version) {
+        Map<String, String> prefixes = new HashMap<>();
+        for (Map.Entry<String, Object> entry : configManager.getMap("servers").entrySet()) {
+            if (!(entry.getValue() instanceof Map)) {
+                throw new IllegalArgumentException("servers." + entry.getKey() + " must be a section");
+            }
+            Object prefix = ((Map<?, ?>) entry.getValue()).get("prefix");
+            if (prefix != null) {
+                prefixes.put(key(entry.getKey()), prefix.toString());
+            }
+        }
+
+        Map<String, Set<String>> routes = new HashMap<>();
+        for (Map.Entry<String, Object> entry : configManager.getMap("routing").entrySet()) {
+            if (!(entry.getValue() instanceof Iterable)) {
+                throw new IllegalArgumentException("routing." + entry.getKey() + " must be a list of server names");
+            }
+            Set<String> targets = new HashSet<>();
+            for (Object target : (Iterable<?>) entry.getValue()) {
+                targets.add(key(String.valueOf(target)));
+            }
+            routes.put(key(entry.getKey()), Collections.unmodifiableSet(targets));
+        }
+
+        return new NetworkConfig(epoch, version, Collections.unmodifiableMap(prefixes), Collections.unmodifiableMap(routes),
+                FloodFilter.Settings.fromConfig(configManager), WordFilter.fromConfig(configManager));
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public FloodFilter.Settings getFloodSettings() {
+        return floodSettings;
+    }
+
+    /**
+     * Get the word filter compiled from this configuration
+     * @return The word filter
+     */
+    public WordFilter getWordFilter() {
+        return wordFilter;
+    }
+
+    /**
+     * Get all server names mentioned in the configuration
+     * @return The lower-cased server names
+     */
+    public Set<String> getConfiguredServers() {
+        Set<String> names = new HashSet<>(prefixes.keySet());
+        names.addAll(routes.keySet());
+        routes.values().forEach(names::addAll);
+        return names;
+    }
+
+    /**
+     * Check whether chat from one server should be forwarded to another
+     * @param origin The origin server name
+     * @param target The candidate target server name
+     * @return true if the origin has no routing rule or the rule includes the target
+     */
+    public boolean shouldRoute(String origin, String target) {
+        Set<String> targets = routes.get(key(origin));
+        return targets == null || targets.contains(key(target));
+    }
+
+    /**
+     * Build the snapshot pushed to a backend
+     * @param serverName The backend's name on the proxy
+     * @return The snapshot
+     */
+    public ConfigSnapshot snapshotFor(String serverName) {
+        String own = key(serverName);
+        Set<String> others = new LinkedHashSet<>();
+        for (Map.Entry<String, String> entry : prefixes.entrySet()) {
+            if (!entry.getKey().equals(own)) {
+                others.add(entry.getValue());
+            }
+        }
+        return new ConfigSnapshot(epoch, version, serverName, prefixes.get(own), new ArrayList<>(others));
+    }
+
+    private static String key(String serverName) {
+        return serverName.toLowerCase(Locale.ROOT);
+    }
+}
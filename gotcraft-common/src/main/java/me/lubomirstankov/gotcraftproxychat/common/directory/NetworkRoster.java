@@ -0,0 +1,180 @@
+package me.lubomirstankov.gotcraftproxychat.common.directory;
+
+import me.lubomirstankov.gotcraftproxychat.common.protocol.FrameType;
+import me.lubomirstankov.gotcraftproxychat.common.protocol.ProtocolIO;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Proxy-side roster of every online player, published to backends as versioned deltas
+ * Changes are only recorded as pending; {@link #drainDelta()} folds them into the roster as one new version,
+ * so a player who joins and leaves between two flushes never reaches the backends
+ */
+public class NetworkRoster {
+
+    static final byte OP_UPDATE = 0;
+    static final byte OP_REMOVE = 1;
+
+    private static final Member REMOVED = new Member("", "");
+
+    // Identifies this roster instance, so backends never apply deltas from before a proxy restart
+    private final long epoch = System.currentTimeMillis();
+
+    private final Map<UUID, Member> members = new HashMap<>();
+    private final Map<UUID, Member> pending = new LinkedHashMap<>();
+    private long version;
+
+    private byte[] snapshot;
+    private long snapshotVersion = -1;
+
+    /**
+     * Record that a player joined the network or switched servers
+     * @param uuid The player's UUID
+     * @param name The player's name
+     * @param serverName The server the player is now on
+     */
+    public synchronized void update(UUID uuid, String name, String serverName) {
+        pending.put(uuid, new Member(name, serverName));
+    }
+
+    /**
+     * Record that a player left the network
+     * @param uuid The player's UUID
+     */
+    public synchronized void remove(UUID uuid) {
+        pending.put(uuid, REMOVED);
+    }
+
+    /**
+     * Apply pending changes as a new roster version
+     * @return The ROSTER_DELTA frame, or null if nothing changed
+     */
+    public synchronized byte[] drainDelta() {
+        if (pending.isEmpty()) {
+            return null;
+        }
+
+        try (ByteArrayOutputStream ops = new ByteArrayOutputStream();
+             DataOutputStream dos = new DataOutputStream(ops)) {
+
+            int count = 0;
+            for (Map.Entry<UUID, Member> change : pending.entrySet()) {
+                UUID uuid = change.getKey();
+                Member member = change.getValue();
+
+                if (member == REMOVED) {
+                    if (members.remove(uuid) == null) {
+                        continue; // Joined and left within one batch
+                    }
+                    dos.writeByte(OP_REMOVE);
+                    ProtocolIO.writeUuid(dos, uuid);
+                } else {
+                    if (member.equals(members.put(uuid, member))) {
+                        continue;
+                    }
+                    dos.writeByte(OP_UPDATE);
+                    ProtocolIO.writeUuid(dos, uuid);
+                    ProtocolIO.writeString(dos, member.name);
+                    ProtocolIO.writeString(dos, member.serverName);
+                }
+                count++;
+            }
+            pending.clear();
+
+            if (count == 0) {
+                return null;
+            }
+            version++;
+            dos.flush();
+
+            ByteArrayOutputStream bos = new ByteArrayOutputStream(ops.size() + 24);
+            DataOutputStream frame = new DataOutputStream(bos);
+            frame.writeByte(FrameType.ROSTER_DELTA);
+            frame.writeLong(epoch);
+            frame.writeLong(version);
+            ProtocolIO.writeVarInt(frame, count);
+            ops.writeTo(frame);
+            return bos.toByteArray();
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to serialize roster delta", e);
+        }
+    }
+
+    /**
+     * Encode the roster as of the latest version, without pending changes
+     * Server names are written once in a table and referenced by index
+     * @return The ROSTER_SNAPSHOT frame, cached until the next version
+     */
+    public synchronized byte[] snapshot() {
+        if (snapshot != null && snapshotVersion == version) {
+            return snapshot;
+        }
+
+        try (ByteArrayOutputStream bos = new ByteArrayOutputStream(members.size() * 32 + 32);
+             DataOutputStream dos = new DataOutputStream(bos)) {
+
+            Map<String, Integer> servers = new LinkedHashMap<>();
+            for (Member member : members.values()) {
+                servers.putIfAbsent(member.serverName, servers.size());
+            }
+
+            dos.writeByte(FrameType.ROSTER_SNAPSHOT);
+            dos.writeLong(epoch);
+            dos.writeLong(version);
+            ProtocolIO.writeVarInt(dos, servers.size());
+            for (String serverName : servers.keySet()) {
+                ProtocolIO.writeString(dos, serverName);
+            }
+
+            ProtocolIO.writeVarInt(dos, members.size());
+            for (Map.Entry<UUID, Member> entry : members.entrySet()) {
+                ProtocolIO.writeUuid(dos, entry.getKey());
+                ProtocolIO.writeString(dos, entry.getValue().name);
+                ProtocolIO.writeVarInt(dos, servers.get(entry.getValue().serverName));
+            }
+
+            snapshot = bos.toByteArray();
+            snapshotVersion = version;
+            return snapshot;
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to serialize roster snapshot", e);
+        }
+    }
+
+    /**
+     * Get the number of players in the latest version
+     * @return The player count
+     */
+    public synchronized int size() {
+        return members.size();
+    }
+
+    private static final class Member {
+        private final String name;
+        private final String serverName;
+
+        private Member(String name, String serverName) {
+            this.name = name;
+            this.serverName = serverName;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Member)) return false;
+            Member other = (Member) o;
+            return name.equals(other.name) && serverName.equals(other.serverName);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * name.hashCode() + serverName.hashCode();
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package me.lubomirstankov.gotcraftproxychat.common.directory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Concurrent index of online players and the backend server each one is connected to
+ * Names are also kept in a sorted, lower-cased index, so prefix lookups only visit matching names
+ * @param <S> The proxy's server handle type
+ */
+public class PlayerDirectory<S> {
+
+    private final Map<UUID, Entry<S>> byUuid = new ConcurrentHashMap<>();
+    private final ConcurrentNavigableMap<String, Entry<S>> byName = new ConcurrentSkipListMap<>();
+
+    /**
+     * Record that a player is now connected to a server, on first connect or after a switch
+     * @param uuid The player's UUID
+     * @param name The player's name
+     * @param server The server the player is connected to
+     */
+    public void update(UUID uuid, String name, S server) {
+        Entry<S> entry = new Entry<>(uuid, name, server);
+        Entry<S> previous = byUuid.put(uuid, entry);
+        if (previous != null && !previous.key.equals(entry.key)) {
+            byName.remove(previous.key, previous);
+        }
+        byName.put(entry.key, entry);
+    }
+
+    /**
+     * Remove a player that left the network
+     * @param uuid The player's UUID
+     */
+    public void remove(UUID uuid) {
+        Entry<S> entry = byUuid.remove(uuid);
+        if (entry != null) {
+            // Only drop the name if it still points at this player
+            byName.remove(entry.key, entry);
+        }
+    }
+
+    /**
+     * Look up a player by UUID
+     * @param uuid The player's UUID
+     * @return The entry, or null if the player is not online
+     */
+    public Entry<S> get(UUID uuid) {
+        return byUuid.get(uuid);
+    }
+
+    /**
+     * Look up a player by exact name, ignoring case
+     * @param name The player's name
+     * @return The entry, or null if no such player is online
+     */
+    public Entry<S> find(String name) {
+        return byName.get(name.toLowerCase(Locale.ROOT));
+    }
+
+    /**
+     * Find online player names starting with a prefix, ignoring case, in alphabetical order
+     * @param prefix The typed prefix
+     * @param limit The maximum number of names to return
+     * @return The matching names
+     */
+    public List<String> complete(String prefix, int limit) {
+        String key = prefix.toLowerCase(Locale.ROOT);
+        List<String> names = new ArrayList<>(Math.min(limit, 16));
+        for (Entry<S> entry : byName.tailMap(key, true).values()) {
+            if (names.size() >= limit || !entry.key.startsWith(key)) {
+                break;
+            }
+            names.add(entry.name);
+        }
+        return names.isEmpty() ? Collections.emptyList() : names;
+    }
+
+    /**
+     * Get the number of online players
+     * @return The player count
+     */
+    public int size() {
+        return byUuid.size();
+    }
+
+    public void clear() {
+        byUuid.clear();
+        byName.clear();
+    }
+
+    /**
+     * An online player and the server they are on
+     * @param <S> The proxy's server handle type
+     */
+    public static final class Entry<S> {
+        private final UUID uuid;
+        private final String name;
+        private final String key;
+        private final S server;
+
+        private Entry(UUID uuid, String name, S server) {
+            this.uuid = uuid;
+            this.name = name;
+            this.key = name.toLowerCase(Locale.ROOT);
+            this.server = server;
+        }
+
+        public UUID getUuid() {
+            return uuid;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public S getServer() {
+            return server;
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package me.lubomirstankov.gotcraftproxychat.common.directory;
+
+import me.lubomirstankov.gotcraftproxychat.common.protocol.FrameType;
+import me.lubomirstankov.gotcraftproxychat.common.protocol.ProtocolIO;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Backend-side copy of the proxy's network roster, kept current from snapshots and deltas
+ * A delta is only applied on top of the version directly before it; anything else marks the mirror stale.
+ * A snapshot older than the mirrored version is ignored
+ */
+public class RosterMirror {
+
+    private static final long RESYNC_RETRY_MILLIS = 5_000L;
+
+    private volatile PlayerDirectory<String> directory = new PlayerDirectory<>();
+
+    // Guarded by this
+    private long epoch;
+    private long version = -1;
+    private long resyncRequestedAt;
+
+    // Server names are shared by many players, so one instance of each is kept
+    private final Map<String, String> serverNames = new HashMap<>();
+
+    /**
+     * Apply a ROSTER_SNAPSHOT or ROSTER_DELTA frame
+     * @param data The frame
+     * @return true if the mirror is out of date and a resync should be requested now
+     * @throws IOException If the frame is malformed
+     */
+    public synchronized boolean accept(byte[] data) throws IOException {
+        DataInputStream dis = new DataInputStream(new ByteArrayInputStream(data));
+        byte type = dis.readByte();
+        long frameEpoch = dis.readLong();
+        long frameVersion = dis.readLong();
+
+        if (type == FrameType.ROSTER_SNAPSHOT) {
+            if (frameEpoch < epoch || (frameEpoch == epoch && frameVersion < version)) {
+                return false; // A resync reply overtaken by a newer snapshot or delta
+            }
+            applySnapshot(dis);
+            epoch = frameEpoch;
+            version = frameVersion;
+            resyncRequestedAt = 0;
+            return false;
+        }
+
+        if (type != FrameType.ROSTER_DELTA) {
+            throw new IOException("Not a roster frame");
+        }
+
+        if (frameEpoch != epoch || frameVersion != version + 1) {
+            if (frameEpoch == epoch && frameVersion <= version) {
+                return false; // Already covered by a newer snapshot
+            }
+            return requestResync();
+        }
+
+        applyDelta(dis);
+        version = frameVersion;
+        return false;
+    }
+
+    /**
+     * Get the mirrored players, indexed like the proxy's directory with server names as servers
+     * @return The directory, empty until the first snapshot arrives
+     */
+    public PlayerDirectory<String> getDirectory() {
+        return directory;
+    }
+
+    /**
+     * Check whether a snapshot has been received
+     * @return true once the mirror holds a roster version
+     */
+    public synchronized boolean isSynced() {
+        return version >= 0;
+    }
+
+    private boolean requestResync() {
+        long now = System.currentTimeMillis();
+        if (now - resyncRequestedAt < RESYNC_RETRY_MILLIS) {
+            return false;
+        }
+        resyncRequestedAt = now;
+        return true;
+    }
+
+    private void applySnapshot(DataInputStream dis) throws IOException {
+        int serverCount = ProtocolIO.readVarInt(dis);
+        String[] servers = new String[serverCount];
+        for (int i = 0; i < serverCount; i++) {
+            servers[i] = intern(ProtocolIO.readString(dis));
+        }
+
+        // Built aside and swapped in, so readers never see a half-filled roster
+        PlayerDirectory<String> fresh = new PlayerDirectory<>();
+        int count = ProtocolIO.readVarInt(dis);
+        for (int i = 0; i < count; i++) {
+            UUID uuid = ProtocolIO.readUuid(dis);
+            String name = ProtocolIO.readString(dis);
+            int server = ProtocolIO.readVarInt(dis);
+            if (server < 0 || server >= serverCount) {
+                throw new IOException("Unknown server index " + server);
+            }
+            fresh.update(uuid, name, servers[server]);
+        }
+        directory = fresh;
+    }
+
+    private void applyDelta(DataInputStream dis) throws IOException {
+        int count = ProtocolIO.readVarInt(dis);
+        for (int i = 0; i < count; i++) {
+            byte op = dis.readByte();
+            UUID uuid = ProtocolIO.readUuid(dis);
+            if (op == NetworkRoster.OP_REMOVE) {
+                directory.remove(uuid);
+            } else if (op == NetworkRoster.OP_UPDATE) {
+                String name = ProtocolIO.readString(dis);
+                directory.update(uuid, name, intern(ProtocolIO.readString(dis)));
+            } else {
+                throw new IOException("Unknown roster operation " + op);
+            }
+        }
+    }
+
+    private String intern(String serverName) {
+        return serverNames.computeIfAbsent(serverName, name -> name);
+    }
+}
@@ -0,0 +1,223 @@
+package me.lubomirstankov.gotcraftproxychat.common.filter;
+
+import me.lubomirstankov.gotcraftproxychat.common.config.ConfigManager;
+import me.lubomirstankov.gotcraftproxychat.common.metrics.Metrics;
+import me.lubomirstankov.gotcraftproxychat.common.model.ChatPacketView;
+import me.lubomirstankov.gotcraftproxychat.common.text.ComponentText;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Suppresses repeated and near-identical chat lines before they are fanned out
+ * Lines are reduced to 64-bit SimHash fingerprints; only fingerprints are kept, never message text.
+ * Each check compares against a fixed number of recent entries per player and network-wide, so it is O(1).
+ */
+public class FloodFilter {
+
+    private static final int PLAYER_SLOTS = 8;
+    private static final int GLOBAL_SLOTS = 64;
+
+    private final Map<UUID, Window> players = new ConcurrentHashMap<>();
+    private final Window global = new Window(GLOBAL_SLOTS);
+
+    /**
+     * Apply the filter to a chat frame
+     * @param data The serialized chat packet
+     * @param view A view over the same bytes
+     * @param settings The flood settings in effect
+     * @return The bytes to forward (possibly rewritten with a repeat counter), or null to drop the line
+     */
+    public byte[] filter(byte[] data, ChatPacketView view, Settings settings) {
+        if (!settings.enabled) {
+            return data;
+        }
+
+        String normalized = normalize(ComponentText.plainText(view.getJson()));
+        long fingerprint = simHash(normalized);
+        long now = System.currentTimeMillis();
+        long windowMillis = settings.windowMillis;
+
+        int playerCount = players.computeIfAbsent(view.getPlayerUuid(), uuid -> new Window(PLAYER_SLOTS))
+                .record(fingerprint, now, windowMillis, settings.similarityBits);
+
+        // Short lines like "gg" or "lol" are naturally repeated by many players at once, so only longer
+        // lines count towards the network-wide window
+        int globalCount = normalized.length() >= settings.globalMinLength
+                ? global.record(fingerprint, now, windowMillis, settings.similarityBits)
+                : 0;
+
+        int repeats;
+        String reason;
+        if (playerCount >= settings.playerThreshold) {
+            repeats = playerCount;
+            reason = "flood.suppressed.player";
+        } else if (globalCount >= settings.globalThreshold) {
+            repeats = globalCount;
+            reason = "flood.suppressed.global";
+        } else {
+            return data;
+        }
+
+        if (settings.collapse && repeats % settings.collapseEvery == 0) {
+            Metrics.counter("flood.collapsed").increment();
+            return withRepeatCount(view, repeats);
+        }
+
+        Metrics.counter(reason).increment();
+        return null;
+    }
+
+    /**
+     * Forget a player's recent fingerprints, e.g. when they disconnect
+     * @param playerUuid The player's UUID
+     */
+    public void forget(UUID playerUuid) {
+        players.remove(playerUuid);
+    }
+
+    /**
+     * Compute a 64-bit SimHash over character trigrams of the normalized text
+     * Near-identical lines produce fingerprints that differ in only a few bits
+     * @param text The plain text
+     * @return The fingerprint
+     */
+    public static long fingerprint(String text) {
+        return simHash(normalize(text));
+    }
+
+    private static long simHash(String normalized) {
+        if (normalized.length() < 3) {
+            return mix(normalized.hashCode());
+        }
+
+        int[] weights = new int[64];
+        for (int i = 0; i + 3 <= normalized.length(); i++) {
+            long hash = mix(((long) normalized.charAt(i) << 32) | ((long) normalized.charAt(i + 1) << 16) | normalized.charAt(i + 2));
+            for (int bit = 0; bit < 64; bit++) {
+                weights[bit] += ((hash >>> bit) & 1L) != 0 ? 1 : -1;
+            }
+        }
+
+        long fingerprint = 0;
+        for (int bit = 0; bit < 64; bit++) {
+            if (weights[bit] > 0) {
+                fingerprint |= 1L << bit;
+            }
+        }
+        return fingerprint;
+    }
+
+    // Lower-case letters and digits only, with long runs of one character capped at two ("heyyyy" -> "heyy")
+    private static String normalize(String text) {
+        StringBuilder builder = new StringBuilder(text.length());
+        for (int i = 0; i < text.length(); i++) {
+            char c = Character.toLowerCase(text.charAt(i));
+            if (!Character.isLetterOrDigit(c)) continue;
+            int length = builder.length();
+            if (length >= 2 && builder.charAt(length - 1) == c && builder.charAt(length - 2) == c) continue;
+            builder.append(c);
+        }
+        return builder.toString();
+    }
+
+    // SplitMix64 finalizer
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+
+    private static byte[] withRepeatCount(ChatPacketView view, int repeats) {
+        return view.withJson(ComponentText.appendSuffix(view.getJson(), " (x" + repeats + ")"));
+    }
+
+    /**
+     * Fixed-size ring of recent fingerprints with their repeat counts
+     */
+    private static final class Window {
+        private final long[] fingerprints;
+        private final long[] lastSeen;
+        private final int[] counts;
+        private int next;
+
+        private Window(int slots) {
+            this.fingerprints = new long[slots];
+            this.lastSeen = new long[slots];
+            this.counts = new int[slots];
+        }
+
+        // Returns how many times this line has now been seen within the window
+        private synchronized int record(long fingerprint, long now, long windowMillis, int similarityBits) {
+            for (int i = 0; i < fingerprints.length; i++) {
+                if (counts[i] == 0 || now - lastSeen[i] > windowMillis) continue;
+                if (Long.bitCount(fingerprints[i] ^ fingerprint) <= similarityBits) {
+                    lastSeen[i] = now;
+                    return ++counts[i];
+                }
+            }
+
+            fingerprints[next] = fingerprint;
+            lastSeen[next] = now;
+            counts[next] = 1;
+            next = (next + 1) % fingerprints.length;
+            return 1;
+        }
+    }
+
+    /**
+     * Flood filter settings from the proxy configuration
+     */
+    public static final class Settings {
+        private final boolean enabled;
+        private final boolean collapse;
+        private final int collapseEvery;
+        private final long windowMillis;
+        private final int similarityBits;
+        private final int playerThreshold;
+        private final int globalThreshold;
+        private final int globalMinLength;
+
+        private Settings(boolean enabled, boolean collapse, int collapseEvery, long windowMillis,
+                         int similarityBits, int playerThreshold, int globalThreshold, int globalMinLength) {
+            this.enabled = enabled;
+            this.collapse = collapse;
+            this.collapseEvery = collapseEvery;
+            this.windowMillis = windowMillis;
+            this.similarityBits = similarityBits;
+            this.playerThreshold = playerThreshold;
+            this.globalThreshold = globalThreshold;
+            this.globalMinLength = globalMinLength;
+        }
+
+        /**
+         * Read and validate the "flood" section
+         * @param configManager The loaded configuration
+         * @return The settings
+         * @throws IllegalArgumentException If a value is out of range
+         */
+        public static Settings fromConfig(ConfigManager configManager) {
+            String mode = configManager.getString("flood.mode", "collapse").toLowerCase(Locale.ROOT);
+            if (!mode.equals("drop") && !mode.equals("collapse")) {
+                throw new IllegalArgumentException("flood.mode must be 'drop' or 'collapse'");
+            }
+
+            int collapseEvery = configManager.getInt("flood.collapse-every", 5);
+            int windowSeconds = configManager.getInt("flood.window-seconds", 10);
+            int similarityBits = configManager.getInt("flood.similarity-bits", 6);
+            int playerThreshold = configManager.getInt("flood.player-threshold", 3);
+            int globalThreshold = configManager.getInt("flood.global-threshold", 4);
+            int globalMinLength = configManager.getInt("flood.global-min-length", 12);
+            if (collapseEvery < 2 || windowSeconds < 1 || similarityBits < 0 || similarityBits > 32
+                    || playerThreshold < 2 || globalThreshold < 2 || globalMinLength < 0) {
+                throw new IllegalArgumentException("flood settings out of range");
+            }
+
+            return new Settings(configManager.getBoolean("flood.enabled", true), mode.equals("collapse"),
+                    collapseEvery, windowSeconds * 1000L, similarityBits, playerThreshold, globalThreshold,
+                    globalMinLength);
+        }
+    }
+}
@@ -0,0 +1,329 @@
+package me.lubomirstankov.gotcraftproxychat.common.filter;
+
+import me.lubomirstankov.gotcraftproxychat.common.config.ConfigManager;
+import me.lubomirstankov.gotcraftproxychat.common.metrics.Metrics;
+import me.lubomirstankov.gotcraftproxychat.common.model.ChatPacketView;
+import me.lubomirstankov.gotcraftproxychat.common.text.ComponentText;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Masks or blocks listed terms in the visible text of chat lines
+ * All terms are compiled into one Aho-Corasick automaton, so a line is scanned once regardless of list size.
+ * The text of all segments is scanned as one string, so a term split across colors is still found.
+ */
+public class WordFilter {
+
+    private static final WordFilter DISABLED = new WordFilter(false, false, false, new Automaton());
+
+    private final boolean enabled;
+    private final boolean blockAll;
+    private final boolean wholeWords;
+    private final Automaton automaton;
+
+    private WordFilter(boolean enabled, boolean blockAll, boolean wholeWords, Automaton automaton) {
+        this.enabled = enabled;
+        this.blockAll = blockAll;
+        this.wholeWords = wholeWords;
+        this.automaton = automaton;
+    }
+
+    /**
+     * Read the "filter" section and compile the term lists
+     * @param configManager The loaded configuration
+     * @return The compiled filter
+     * @throws IllegalArgumentException If a value is invalid or the terms file cannot be read
+     */
+    public static WordFilter fromConfig(ConfigManager configManager) {
+        if (!configManager.getBoolean("filter.enabled", false)) {
+            return DISABLED;
+        }
+
+        String mode = configManager.getString("filter.mode", "mask").toLowerCase(Locale.ROOT);
+        if (!mode.equals("mask") && !mode.equals("block")) {
+            throw new IllegalArgumentException("filter.mode must be 'mask' or 'block'");
+        }
+
+        List<String> terms = new ArrayList<>(configManager.getStringList("filter.terms"));
+        String termsFile = configManager.getString("filter.terms-file", "");
+        if (!termsFile.isEmpty()) {
+            Path path = configManager.getConfigPath().resolveSibling(termsFile);
+            try {
+                for (String line : Files.readAllLines(path, StandardCharsets.UTF_8)) {
+                    if (!line.isBlank() && !line.startsWith("#")) {
+                        terms.add(line.trim());
+                    }
+                }
+            } catch (IOException e) {
+                throw new IllegalArgumentException("Failed to read filter.terms-file " + path + ": " + e.getMessage(), e);
+            }
+        }
+
+        Automaton automaton = new Automaton();
+        for (String term : terms) {
+            automaton.add(term, false);
+        }
+        for (String term : configManager.getStringList("filter.block-terms")) {
+            automaton.add(term, true);
+        }
+        automaton.compile();
+
+        return new WordFilter(true, mode.equals("block"), configManager.getBoolean("filter.whole-words", true), automaton);
+    }
+
+    /**
+     * Apply the filter to a chat frame
+     * @param data The serialized chat packet
+     * @param view A view over the same bytes
+     * @return The bytes to forward (possibly rewritten with masked text), or null to drop the line
+     */
+    public byte[] filter(byte[] data, ChatPacketView view) {
+        if (!enabled || automaton.isEmpty()) {
+            return data;
+        }
+
+        String json = view.getJson();
+        List<ComponentText.Segment> segments = ComponentText.segments(json);
+        if (segments.isEmpty()) {
+            return data;
+        }
+
+        StringBuilder builder = new StringBuilder();
+        for (ComponentText.Segment segment : segments) {
+            builder.append(segment.getValue());
+        }
+        String text = builder.toString();
+
+        boolean[] masked = new boolean[text.length()];
+        int result = automaton.scan(text, wholeWords, masked);
+        if (result == Automaton.NO_MATCH) {
+            return data;
+        }
+
+        if (result == Automaton.BLOCK || blockAll) {
+            Metrics.counter("filter.blocked").increment();
+            return null;
+        }
+
+        List<String> values = new ArrayList<>(segments.size());
+        int offset = 0;
+        for (ComponentText.Segment segment : segments) {
+            values.add(mask(segment.getValue(), masked, offset));
+            offset += segment.getValue().length();
+        }
+
+        Metrics.counter("filter.masked").increment();
+        return view.withJson(ComponentText.replace(json, segments, values));
+    }
+
+    /**
+     * Apply the filter to plain text, such as a private message
+     * @param text The text
+     * @return The text with matched terms masked, or null to drop it
+     */
+    public String filter(String text) {
+        if (!enabled || automaton.isEmpty() || text.isEmpty()) {
+            return text;
+        }
+
+        boolean[] masked = new boolean[text.length()];
+        int result = automaton.scan(text, wholeWords, masked);
+        if (result == Automaton.NO_MATCH) {
+            return text;
+        }
+
+        if (result == Automaton.BLOCK || blockAll) {
+            Metrics.counter("filter.blocked").increment();
+            return null;
+        }
+
+        Metrics.counter("filter.masked").increment();
+        return mask(text, masked, 0);
+    }
+
+    private static String mask(String value, boolean[] masked, int offset) {
+        char[] chars = value.toCharArray();
+        for (int i = 0; i < chars.length; i++) {
+            if (masked[offset + i] && !Character.isWhitespace(chars[i])) {
+                chars[i] = '*';
+            }
+        }
+        return new String(chars);
+    }
+
+    /**
+     * Case-insensitive Aho-Corasick automaton over chars
+     * Built as a trie of hash maps, then flattened into arrays with sorted edges for scanning
+     */
+    private static final class Automaton {
+        static final int NO_MATCH = 0;
+        static final int MASK = 1;
+        static final int BLOCK = 2;
+
+        private List<Map<Character, Integer>> trie = new ArrayList<>(List.of(new HashMap<>()));
+        private List<Integer> lengths = new ArrayList<>(List.of(0));
+        private List<Boolean> blocks = new ArrayList<>(List.of(false));
+
+        // Flattened form: node n's edges are edgeChars/edgeTargets[edgeStart[n] .. edgeStart[n + 1])
+        private int[] edgeStart;
+        private char[] edgeChars;
+        private int[] edgeTargets;
+        private int[] fail;
+        private int[] output;       // Nearest node on the failure chain (or itself) that ends a term, -1 if none
+        private int[] termLength;   // Length of the term ending at a node, 0 if none
+        private boolean[] termBlock;
+
+        void add(String term, boolean block) {
+            String trimmed = term.trim();
+            if (trimmed.isEmpty()) {
+                return;
+            }
+
+            int node = 0;
+            for (int i = 0; i < trimmed.length(); i++) {
+                char c = Character.toLowerCase(trimmed.charAt(i));
+                Integer next = trie.get(node).get(c);
+                if (next == null) {
+                    next = trie.size();
+                    trie.add(new HashMap<>());
+                    lengths.add(0);
+                    blocks.add(false);
+                    trie.get(node).put(c, next);
+                }
+                node = next;
+            }
+            lengths.set(node, trimmed.length());
+            blocks.set(node, blocks.get(node) || block);
+        }
+
+        void compile() {
+            int size = trie.size();
+            edgeStart = new int[size + 1];
+            int edges = 0;
+            for (int n = 0; n < size; n++) {
+                edgeStart[n] = edges;
+                edges += trie.get(n).size();
+            }
+            edgeStart[size] = edges;
+
+            edgeChars = new char[edges];
+            edgeTargets = new int[edges];
+            for (int n = 0; n < size; n++) {
+                Character[] keys = trie.get(n).keySet().toArray(new Character[0]);
+                Arrays.sort(keys);
+                for (int i = 0; i < keys.length; i++) {
+                    edgeChars[edgeStart[n] + i] = keys[i];
+                    edgeTargets[edgeStart[n] + i] = trie.get(n).get(keys[i]);
+                }
+            }
+
+            termLength = new int[size];
+            termBlock = new boolean[size];
+            for (int n = 0; n < size; n++) {
+                termLength[n] = lengths.get(n);
+                termBlock[n] = blocks.get(n);
+            }
+
+            // Breadth-first, so a node's failure target is always finished before the node itself
+            fail = new int[size];
+            output = new int[size];
+            output[0] = -1;
+            ArrayDeque<Integer> queue = new ArrayDeque<>();
+            for (int e = edgeStart[0]; e < edgeStart[1]; e++) {
+                int child = edgeTargets[e];
+                fail[child] = 0;
+                output[child] = termLength[child] > 0 ? child : -1;
+                queue.add(child);
+            }
+            while (!queue.isEmpty()) {
+                int node = queue.poll();
+                for (int e = edgeStart[node]; e < edgeStart[node + 1]; e++) {
+                    int child = edgeTargets[e];
+                    int f = fail[node];
+                    int target;
+                    while ((target = step(f, edgeChars[e])) < 0 && f != 0) {
+                        f = fail[f];
+                    }
+                    fail[child] = target >= 0 ? target : 0;
+                    output[child] = termLength[child] > 0 ? child : output[fail[child]];
+                    queue.add(child);
+                }
+            }
+
+            // The build structures are no longer needed
+            trie = null;
+            lengths = null;
+            blocks = null;
+        }
+
+        boolean isEmpty() {
+            return edgeChars == null || edgeChars.length == 0;
+        }
+
+        /**
+         * Scan text once, marking matched characters
+         * @return BLOCK if a block term matched, MASK if any other term matched, otherwise NO_MATCH
+         */
+        int scan(String text, boolean wholeWords, boolean[] masked) {
+            int result = NO_MATCH;
+            int node = 0;
+            for (int i = 0; i < text.length(); i++) {
+                char c = Character.toLowerCase(text.charAt(i));
+                int next;
+                while ((next = step(node, c)) < 0 && node != 0) {
+                    node = fail[node];
+                }
+                node = next >= 0 ? next : 0;
+
+                // Every term ending here, longest first
+                for (int match = output[node]; match >= 0; match = output[fail[match]]) {
+                    int start = i - termLength[match] + 1;
+                    if (wholeWords && (!isBoundary(text, start, start - 1) || !isBoundary(text, i, i + 1))) {
+                        continue;
+                    }
+                    if (termBlock[match]) {
+                        return BLOCK;
+                    }
+                    Arrays.fill(masked, start, i + 1, true);
+                    result = MASK;
+                }
+            }
+            return result;
+        }
+
+        private int step(int node, char c) {
+            int low = edgeStart[node];
+            int high = edgeStart[node + 1] - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                char midChar = edgeChars[mid];
+                if (midChar < c) {
+                    low = mid + 1;
+                } else if (midChar > c) {
+                    high = mid - 1;
+                } else {
+                    return edgeTargets[mid];
+                }
+            }
+            return -1;
+        }
+
+        // Only edges that are word characters need a boundary, so "discord.gg/" still matches "discord.gg/abc"
+        private static boolean isBoundary(String text, int edge, int outside) {
+            if (!Character.isLetterOrDigit(text.charAt(edge)) || outside < 0 || outside >= text.length()) {
+                return true;
+            }
+            return !Character.isLetterOrDigit(text.charAt(outside));
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package me.lubomirstankov.gotcraftproxychat.common.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Outgoing chat packet captured on a backend and wrapped into a ChatPacket
+ */
+@Name("gotcraftproxychat.ChatCapture")
+@Label("Chat Capture")
+@Category({"GotCraftProxyChat", "Backend"})
+@Description("Outgoing chat packet captured on a backend and wrapped into a ChatPacket")
+@StackTrace(false)
+public class ChatCaptureEvent extends Event {
+
+    @Label("Server")
+    public String serverName;
+
+    @Label("Player")
+    public String playerName;
+
+    @Label("Packet Type")
+    public String packetType;
+
+    @Label("JSON Length")
+    @Description("Length of the captured component JSON in characters")
+    public int jsonLength;
+}
@@ -0,0 +1,31 @@
+package me.lubomirstankov.gotcraftproxychat.common.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Incoming chat frame decoded into a component on a backend
+ */
+@Name("gotcraftproxychat.ChatDecode")
+@Label("Chat Decode")
+@Category({"GotCraftProxyChat", "Backend"})
+@Description("Incoming chat frame decoded into a component on a backend")
+@StackTrace(false)
+public class ChatDecodeEvent extends Event {
+
+    @Label("Origin Server")
+    public String originServer;
+
+    @Label("Frame Size")
+    @DataAmount
+    public int frameSize;
+
+    @Label("JSON Size")
+    @DataAmount
+    public int jsonSize;
+}
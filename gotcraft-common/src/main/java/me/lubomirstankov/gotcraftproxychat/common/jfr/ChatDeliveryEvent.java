@@ -0,0 +1,29 @@
+package me.lubomirstankov.gotcraftproxychat.common.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Broadcast packet delivered to the players of a backend
+ */
+@Name("gotcraftproxychat.ChatDelivery")
+@Label("Chat Delivery")
+@Category({"GotCraftProxyChat", "Backend"})
+@Description("Broadcast packet delivered to the players of a backend")
+@StackTrace(false)
+public class ChatDeliveryEvent extends Event {
+
+    @Label("Recipients")
+    public int recipients;
+
+    @Label("Direct Writes")
+    @Description("Recipients served by the encode-once channel path")
+    public int directWrites;
+
+    @Label("ProtocolLib Sends")
+    public int protocolLibSends;
+}
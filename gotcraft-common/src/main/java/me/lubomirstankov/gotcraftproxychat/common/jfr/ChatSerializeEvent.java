@@ -0,0 +1,34 @@
+package me.lubomirstankov.gotcraftproxychat.common.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * ChatPacket serialized and split into plugin message frames
+ */
+@Name("gotcraftproxychat.ChatSerialize")
+@Label("Chat Serialize")
+@Category({"GotCraftProxyChat", "Backend"})
+@Description("ChatPacket serialized and split into plugin message frames")
+@StackTrace(false)
+public class ChatSerializeEvent extends Event {
+
+    @Label("Server")
+    public String serverName;
+
+    @Label("Packet Data Size")
+    @DataAmount
+    public int packetDataSize;
+
+    @Label("Serialized Size")
+    @DataAmount
+    public int serializedSize;
+
+    @Label("Frames")
+    public int frames;
+}
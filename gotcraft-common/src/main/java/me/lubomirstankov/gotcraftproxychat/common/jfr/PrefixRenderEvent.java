@@ -0,0 +1,25 @@
+package me.lubomirstankov.gotcraftproxychat.common.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Server prefix resolved with placeholders and parsed with MiniMessage
+ */
+@Name("gotcraftproxychat.PrefixRender")
+@Label("Prefix Render")
+@Category({"GotCraftProxyChat", "Backend"})
+@Description("Server prefix resolved with placeholders and parsed with MiniMessage")
+@StackTrace(false)
+public class PrefixRenderEvent extends Event {
+
+    @Label("Origin Server")
+    public String originServer;
+
+    @Label("Prefix Length")
+    public int prefixLength;
+}
@@ -0,0 +1,33 @@
+package me.lubomirstankov.gotcraftproxychat.common.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Chat payload forwarded from the proxy to backend servers
+ */
+@Name("gotcraftproxychat.ProxyFanout")
+@Label("Proxy Fan-out")
+@Category({"GotCraftProxyChat", "Proxy"})
+@Description("Chat payload forwarded from the proxy to backend servers")
+@StackTrace(false)
+public class ProxyFanoutEvent extends Event {
+
+    @Label("Origin Server")
+    public String originServer;
+
+    @Label("Payload Size")
+    @DataAmount
+    public int payloadSize;
+
+    @Label("Target Servers")
+    public int targetServers;
+
+    @Label("Frames")
+    public int frames;
+}
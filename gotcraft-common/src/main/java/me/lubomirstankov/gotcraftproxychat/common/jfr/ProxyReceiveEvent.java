@@ -0,0 +1,35 @@
+package me.lubomirstankov.gotcraftproxychat.common.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Plugin message received by the proxy, reassembled, validated and filtered
+ */
+@Name("gotcraftproxychat.ProxyReceive")
+@Label("Proxy Receive")
+@Category({"GotCraftProxyChat", "Proxy"})
+@Description("Plugin message received by the proxy, reassembled, validated and filtered")
+@StackTrace(false)
+public class ProxyReceiveEvent extends Event {
+
+    @Label("Origin Server")
+    public String originServer;
+
+    @Label("Frame Size")
+    @DataAmount
+    public int frameSize;
+
+    @Label("Payload Size")
+    @DataAmount
+    public int payloadSize;
+
+    @Label("Complete")
+    @Description("Whether the frame completed a payload")
+    public boolean complete;
+}
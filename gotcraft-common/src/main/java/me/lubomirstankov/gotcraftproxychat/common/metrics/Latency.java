@@ -0,0 +1,56 @@
+package me.lubomirstankov.gotcraftproxychat.common.metrics;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Running count, average and maximum of a duration, e.g. time spent waiting in a queue
+ */
+public final class Latency {
+
+    private final LongAdder count = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0L);
+
+    Latency() {
+    }
+
+    /**
+     * Record one sample
+     * @param nanos The duration in nanoseconds
+     */
+    public void record(long nanos) {
+        count.increment();
+        totalNanos.add(nanos);
+        maxNanos.accumulate(nanos);
+    }
+
+    /**
+     * Record the time elapsed since a {@link System#nanoTime()} reading
+     * @param startNanos The start reading
+     */
+    public void recordSince(long startNanos) {
+        record(System.nanoTime() - startNanos);
+    }
+
+    public long getCount() {
+        return count.sum();
+    }
+
+    /**
+     * Get the average sample
+     * @return The average in microseconds, 0 if nothing was recorded
+     */
+    public long getAverageMicros() {
+        long samples = count.sum();
+        return samples == 0 ? 0 : totalNanos.sum() / samples / 1_000L;
+    }
+
+    /**
+     * Get the largest sample
+     * @return The maximum in microseconds
+     */
+    public long getMaxMicros() {
+        return maxNanos.get() / 1_000L;
+    }
+}
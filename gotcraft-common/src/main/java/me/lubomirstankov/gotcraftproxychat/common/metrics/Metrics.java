@@ -0,0 +1,73 @@
+package me.lubomirstankov.gotcraftproxychat.common.metrics;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Simple registry of named counters, gauges and latencies shared by all services
+ */
+public final class Metrics {
+
+    private static final Map<String, LongAdder> counters = new ConcurrentHashMap<>();
+    private static final Map<String, LongSupplier> gauges = new ConcurrentHashMap<>();
+    private static final Map<String, Latency> latencies = new ConcurrentHashMap<>();
+
+    private Metrics() {
+    }
+
+    /**
+     * Get or create a counter
+     * @param name The counter name (e.g., "delivery.failed")
+     * @return The counter
+     */
+    public static LongAdder counter(String name) {
+        return counters.computeIfAbsent(name, key -> new LongAdder());
+    }
+
+    /**
+     * Register a gauge whose value is read when a snapshot is taken
+     * @param name The gauge name
+     * @param supplier The value supplier
+     */
+    public static void gauge(String name, LongSupplier supplier) {
+        gauges.put(name, supplier);
+    }
+
+    /**
+     * Get or create a latency
+     * @param name The latency name (e.g., "lane.priority.queue")
+     * @return The latency
+     */
+    public static Latency latency(String name) {
+        return latencies.computeIfAbsent(name, key -> new Latency());
+    }
+
+    /**
+     * Take a sorted snapshot of all counters and gauges
+     * Each latency appears as "name.count", "name.avg-us" and "name.max-us"
+     * @return The current values by name
+     */
+    public static Map<String, Long> snapshot() {
+        Map<String, Long> values = new TreeMap<>();
+        counters.forEach((name, counter) -> values.put(name, counter.sum()));
+        gauges.forEach((name, gauge) -> values.put(name, gauge.getAsLong()));
+        latencies.forEach((name, latency) -> {
+            values.put(name + ".count", latency.getCount());
+            values.put(name + ".avg-us", latency.getAverageMicros());
+            values.put(name + ".max-us", latency.getMaxMicros());
+        });
+        return values;
+    }
+
+    /**
+     * Clear all registered counters, gauges and latencies
+     */
+    public static void clear() {
+        counters.clear();
+        gauges.clear();
+        latencies.clear();
+    }
+}
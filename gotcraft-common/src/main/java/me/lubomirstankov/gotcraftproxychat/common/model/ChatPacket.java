@@ -1,5 +1,7 @@
 package me.lubomirstankov.gotcraftproxychat.common.model;
 
+import me.lubomirstankov.gotcraftproxychat.common.protocol.ProtocolIO;
+
 import java.io.*;
 import java.util.UUID;
 
@@ -10,20 +12,37 @@ import java.util.UUID;
 public class ChatPacket implements Serializable {
 
     private static final long serialVersionUID = 1L;
-    private static final byte VERSION = 2; // Version 2 includes serverPrefix
+    // Version 2 includes serverPrefix, version 3 uses length-prefixed strings without a size ceiling,
+    // version 4 adds the lane
+    public static final byte VERSION = 4;
+    // Oldest version still written for backends that negotiated it
+    public static final byte MIN_VERSION = 1;
 
     private final String serverName;
     private final UUID playerUuid;
     private final String playerName;
     private final String serverPrefix;
     private final byte[] packetData;
+    private final Lane lane;
+    private final int version;
 
     public ChatPacket(String serverName, UUID playerUuid, String playerName, String serverPrefix, byte[] packetData) {
+        this(serverName, playerUuid, playerName, serverPrefix, packetData, Lane.NORMAL);
+    }
+
+    public ChatPacket(String serverName, UUID playerUuid, String playerName, String serverPrefix, byte[] packetData, Lane lane) {
+        this(serverName, playerUuid, playerName, serverPrefix, packetData, lane, VERSION);
+    }
+
+    private ChatPacket(String serverName, UUID playerUuid, String playerName, String serverPrefix, byte[] packetData,
+                       Lane lane, int version) {
         this.serverName = serverName;
         this.playerUuid = playerUuid;
         this.playerName = playerName;
         this.serverPrefix = serverPrefix != null ? serverPrefix : "";
         this.packetData = packetData;
+        this.lane = lane;
+        this.version = version;
     }
 
     public String getServerName() {
@@ -46,31 +65,99 @@ public class ChatPacket implements Serializable {
         return packetData;
     }
 
+    /**
+     * Get the delivery lane
+     * @return The lane, NORMAL for packets from before version 4
+     */
+    public Lane getLane() {
+        return lane;
+    }
+
+    /**
+     * Get the wire version this packet was read with, which determines the packet data format
+     * @return The version (1 to 4)
+     */
+    public int getVersion() {
+        return version;
+    }
+
+    /**
+     * Decode the packet data
+     * @return The captured chat payload
+     */
+    public ChatPayload getPayload() {
+        return ChatPayload.decode(packetData, version);
+    }
+
     /**
      * Serialize the chat packet to a byte array
      * @return The serialized byte array
      */
     public byte[] serialize() {
+        return serialize(VERSION);
+    }
+
+    /**
+     * Serialize the chat packet for a receiver that only understands an older wire version
+     * Fields the target version cannot carry (the lane before v4, the prefix in v1) are left out.
+     * @param targetVersion The wire version, from {@link #MIN_VERSION} to {@link #VERSION}
+     * @return The serialized byte array
+     * @throws IllegalArgumentException If the version is unknown
+     * @throws RuntimeException If the packet does not fit the target version (e.g. over 64 KiB of JSON for v1/v2)
+     */
+    public byte[] serialize(int targetVersion) {
+        if (targetVersion < MIN_VERSION || targetVersion > VERSION) {
+            throw new IllegalArgumentException("Unknown chat packet version " + targetVersion);
+        }
+
+        // Packet data only changes format between v2 and v3
+        byte[] data = (version >= 3) == (targetVersion >= 3) ? packetData : getPayload().encode(targetVersion);
+
         try (ByteArrayOutputStream bos = new ByteArrayOutputStream();
              DataOutputStream dos = new DataOutputStream(bos)) {
 
-            dos.writeByte(VERSION); // Write version first
-            dos.writeUTF(serverName);
-            dos.writeUTF(playerUuid.toString());
-            dos.writeUTF(playerName);
-            dos.writeUTF(serverPrefix); // v2: server prefix
-            dos.writeInt(packetData.length);
-            dos.write(packetData);
+            if (targetVersion >= 3) {
+                dos.writeByte(targetVersion); // Write version first
+                if (targetVersion >= 4) {
+                    dos.writeByte(lane.getId());
+                }
+                ProtocolIO.writeString(dos, serverName);
+                ProtocolIO.writeUuid(dos, playerUuid);
+                ProtocolIO.writeString(dos, playerName);
+                ProtocolIO.writeString(dos, serverPrefix);
+                ProtocolIO.writeBytes(dos, data);
+            } else {
+                if (targetVersion == 2) {
+                    dos.writeByte(2);
+                }
+                dos.writeUTF(serverName);
+                dos.writeUTF(playerUuid.toString());
+                dos.writeUTF(playerName);
+                if (targetVersion == 2) {
+                    dos.writeUTF(serverPrefix);
+                }
+                dos.writeInt(data.length);
+                dos.write(data);
+            }
 
             return bos.toByteArray();
         } catch (IOException e) {
-            throw new RuntimeException("Failed to serialize ChatPacket", e);
+            throw new RuntimeException("Failed to serialize ChatPacket as v" + targetVersion, e);
         }
     }
 
+    /**
+     * Get the wire version of a serialized chat packet without decoding it
+     * @param data The serialized packet
+     * @return The version (1 to 4)
+     */
+    public static int versionOf(byte[] data) {
+        return data.length > 0 && data[0] >= 2 && data[0] <= VERSION ? data[0] : 1;
+    }
+
     /**
      * Deserialize a chat packet from a byte array
-     * Supports both v1 (without serverPrefix) and v2 (with serverPrefix) formats
+     * Supports v1 (without serverPrefix), v2 (with serverPrefix), v3 (length-prefixed strings) and v4 (lane) formats
      * @param data The byte array
      * @return The deserialized ChatPacket
      */
@@ -90,9 +177,21 @@ public class ChatPacket implements Serializable {
             String serverPrefix;
             int packetLength;
             byte[] packetData;
-
-            // Check if this is version 2 (first byte == VERSION)
-            if (firstByte == VERSION) {
+            Lane lane = Lane.NORMAL;
+            int version;
+
+            if (firstByte == 3 || firstByte == 4) {
+                // Version 3: length-prefixed UTF-8 strings, binary UUID; version 4 adds the lane
+                if (firstByte == 4) {
+                    lane = Lane.of(dis.readByte());
+                }
+                serverName = ProtocolIO.readString(dis);
+                playerUuid = ProtocolIO.readUuid(dis);
+                playerName = ProtocolIO.readString(dis);
+                serverPrefix = ProtocolIO.readString(dis);
+                packetData = ProtocolIO.readBytes(dis);
+                version = firstByte;
+            } else if (firstByte == 2) {
                 // Version 2: includes serverPrefix
                 serverName = dis.readUTF();
                 playerUuid = UUID.fromString(dis.readUTF());
@@ -101,6 +200,7 @@ public class ChatPacket implements Serializable {
                 packetLength = dis.readInt();
                 packetData = new byte[packetLength];
                 dis.readFully(packetData);
+                version = 2;
             } else {
                 // Version 1: no version byte, no serverPrefix
                 // Reset to beginning and read as v1
@@ -113,9 +213,10 @@ public class ChatPacket implements Serializable {
                 packetLength = dis.readInt();
                 packetData = new byte[packetLength];
                 dis.readFully(packetData);
+                version = 1;
             }
 
-            return new ChatPacket(serverName, playerUuid, playerName, serverPrefix, packetData);
+            return new ChatPacket(serverName, playerUuid, playerName, serverPrefix, packetData, lane, version);
         } catch (IOException e) {
             throw new RuntimeException("Failed to deserialize ChatPacket: " + e.getMessage(), e);
         }
@@ -129,7 +230,8 @@ public class ChatPacket implements Serializable {
                 ", playerName='" + playerName + '\'' +
                 ", serverPrefix='" + serverPrefix + '\'' +
                 ", packetDataSize=" + packetData.length +
+                ", lane=" + lane +
+                ", version=" + version +
                 '}';
     }
 }
-
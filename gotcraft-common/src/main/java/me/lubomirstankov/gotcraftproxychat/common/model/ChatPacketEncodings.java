@@ -0,0 +1,76 @@
+package me.lubomirstankov.gotcraftproxychat.common.model;
+
+import me.lubomirstankov.gotcraftproxychat.common.metrics.Metrics;
+import me.lubomirstankov.gotcraftproxychat.common.protocol.Capabilities;
+import me.lubomirstankov.gotcraftproxychat.common.protocol.Fragmenter;
+
+import java.util.List;
+
+/**
+ * The frames of one chat packet for each wire version and fragment mode its receivers need
+ * The received bytes are reused for receivers on the same version; every other version is encoded at most once.
+ * Receivers that never announced fragment support get the encoding whole, however large.
+ * Not thread-safe: meant for a single fan-out.
+ */
+public class ChatPacketEncodings {
+
+    private final byte[] original;
+    private final int originalVersion;
+    private final byte[][] encoded = new byte[ChatPacket.VERSION + 1][];
+    // Indexed by version, then 1 for fragmented and 0 for whole
+    @SuppressWarnings("unchecked")
+    private final List<byte[]>[][] frames = new List[ChatPacket.VERSION + 1][2];
+    private ChatPacket packet;
+
+    public ChatPacketEncodings(byte[] data) {
+        this.original = data;
+        this.originalVersion = ChatPacket.versionOf(data);
+    }
+
+    /**
+     * Get the frames to send to a receiver
+     * @param receiver What the receiver announced, or the legacy assumption for it
+     * @return The frames, fragmented if necessary and supported by the receiver
+     * @throws IllegalArgumentException If no version is readable by both sides
+     * @throws RuntimeException If the packet cannot be written in the negotiated version
+     */
+    public List<byte[]> framesFor(Capabilities receiver) {
+        int version = Capabilities.local().negotiate(receiver);
+        if (version < 0) {
+            throw new IllegalArgumentException("No common chat protocol version with " + receiver);
+        }
+        int mode = receiver.supports(Capabilities.FEATURE_FRAGMENTS) ? 1 : 0;
+        List<byte[]> cached = frames[version][mode];
+        if (cached != null) {
+            return cached;
+        }
+
+        byte[] bytes = encode(version);
+        cached = mode == 1 ? Fragmenter.split(bytes) : List.of(bytes);
+        frames[version][mode] = cached;
+        return cached;
+    }
+
+    private byte[] encode(int version) {
+        byte[] bytes = encoded[version];
+        if (bytes != null) {
+            return bytes;
+        }
+
+        if (version == originalVersion) {
+            bytes = original;
+        } else {
+            if (packet == null) {
+                packet = ChatPacket.deserialize(original);
+            }
+            bytes = packet.serialize(version);
+            Metrics.counter("handshake.reencoded").increment();
+        }
+        encoded[version] = bytes;
+        return bytes;
+    }
+
+    public int getOriginalSize() {
+        return original.length;
+    }
+}
@@ -0,0 +1,274 @@
+package me.lubomirstankov.gotcraftproxychat.common.model;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.UUID;
+
+/**
+ * Read-only flyweight over a serialized {@link ChatPacket}
+ * Only field offsets are computed up front; values are decoded from the backing array when asked for
+ */
+public class ChatPacketView {
+
+    private final byte[] data;
+    private final int version;
+
+    // Offsets and lengths into data, filled by the header scan
+    private int serverNameOffset, serverNameLength;
+    private int uuidOffset, uuidLength;
+    private int playerNameOffset, playerNameLength;
+    private int prefixOffset, prefixLength;
+    private int senderUuidOffset, senderUuidLength;
+    private int jsonOffset, jsonLength;
+
+    private int position;
+
+    /**
+     * Create a view over a serialized chat packet
+     * @param data The serialized bytes, which must not be modified while the view is in use
+     * @throws IllegalArgumentException If the header is truncated or malformed
+     */
+    public ChatPacketView(byte[] data) {
+        this.data = data;
+        this.version = ChatPacket.versionOf(data);
+        try {
+            scan();
+        } catch (IndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Truncated chat packet", e);
+        }
+    }
+
+    /**
+     * Encode a server name for {@link #isFromServer(byte[])}
+     * @param serverName The server name
+     * @return The lower-cased UTF-8 bytes
+     */
+    public static byte[] encodeServerName(String serverName) {
+        return serverName.toLowerCase(Locale.ROOT).getBytes(StandardCharsets.UTF_8);
+    }
+
+    public int getVersion() {
+        return version;
+    }
+
+    /**
+     * Get the delivery lane
+     * @return The lane, NORMAL for packets from before version 4
+     */
+    public Lane getLane() {
+        return version >= 4 ? Lane.of(data[1]) : Lane.NORMAL;
+    }
+
+    /**
+     * Get the size of the serialized packet
+     * @return The size in bytes
+     */
+    public int getSize() {
+        return data.length;
+    }
+
+    /**
+     * Compare the origin server name with a pre-encoded name, ignoring ASCII case, without decoding it
+     * @param encodedServerName The name encoded with {@link #encodeServerName(String)}
+     * @return true if the packet originated from that server
+     */
+    public boolean isFromServer(byte[] encodedServerName) {
+        if (encodedServerName.length != serverNameLength) {
+            return false;
+        }
+        for (int i = 0; i < serverNameLength; i++) {
+            byte b = data[serverNameOffset + i];
+            if (b >= 'A' && b <= 'Z') {
+                b += 'a' - 'A';
+            }
+            if (b != encodedServerName[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public String getServerName() {
+        return string(serverNameOffset, serverNameLength);
+    }
+
+    public UUID getPlayerUuid() {
+        if (version >= 3) {
+            return new UUID(readLong(uuidOffset), readLong(uuidOffset + 8));
+        }
+        return UUID.fromString(string(uuidOffset, uuidLength));
+    }
+
+    public String getPlayerName() {
+        return string(playerNameOffset, playerNameLength);
+    }
+
+    public String getServerPrefix() {
+        return version >= 2 ? string(prefixOffset, prefixLength) : "";
+    }
+
+    /**
+     * Get the sender UUID string from the captured packet data
+     * @return The sender UUID string, possibly empty
+     */
+    public String getSenderUuid() {
+        return string(senderUuidOffset, senderUuidLength);
+    }
+
+    /**
+     * Get the length of the encoded component JSON
+     * @return The JSON length in bytes
+     */
+    public int getJsonLength() {
+        return jsonLength;
+    }
+
+    /**
+     * Check whether {@link #openJson()} yields standard UTF-8 (v3); older versions use modified UTF-8
+     * @return true if the JSON bytes can be read with a UTF-8 decoder
+     */
+    public boolean isJsonUtf8() {
+        return version >= 3;
+    }
+
+    /**
+     * Stream the component JSON bytes straight from the backing array
+     * @return An input stream over the JSON bytes
+     */
+    public InputStream openJson() {
+        return new ByteArrayInputStream(data, jsonOffset, jsonLength);
+    }
+
+    /**
+     * Decode the component JSON into a string
+     * @return The JSON string
+     */
+    public String getJson() {
+        return string(jsonOffset, jsonLength);
+    }
+
+    /**
+     * Materialize a full ChatPacket, copying the packet data
+     * @return The decoded packet
+     */
+    public ChatPacket toChatPacket() {
+        return ChatPacket.deserialize(data);
+    }
+
+    /**
+     * Serialize a copy of this packet with different component JSON, e.g. after filtering
+     * @param json The new component JSON
+     * @return The serialized packet
+     */
+    public byte[] withJson(String json) {
+        ChatPacket packet = toChatPacket();
+        ChatPayload payload = packet.getPayload();
+        byte[] packetData = new ChatPayload(payload.getTypeHash(), payload.getSenderUuid(), json).encode(ChatPacket.VERSION);
+        return new ChatPacket(packet.getServerName(), packet.getPlayerUuid(), packet.getPlayerName(),
+                packet.getServerPrefix(), packetData, packet.getLane()).serialize();
+    }
+
+    private void scan() {
+        position = version >= 4 ? 2 : version >= 2 ? 1 : 0;
+
+        serverNameLength = readLength();
+        serverNameOffset = skip(serverNameLength);
+
+        if (version >= 3) {
+            uuidLength = 16;
+        } else {
+            uuidLength = readLength();
+        }
+        uuidOffset = skip(uuidLength);
+
+        playerNameLength = readLength();
+        playerNameOffset = skip(playerNameLength);
+
+        if (version >= 2) {
+            prefixLength = readLength();
+            prefixOffset = skip(prefixLength);
+        }
+
+        int payloadLength = version >= 3 ? readVarInt() : readInt();
+        checkBounds(position, payloadLength);
+        int payloadEnd = position + payloadLength;
+
+        // Captured packet data: int(typeHash), sender UUID string, JSON string
+        position += 4;
+        senderUuidLength = readLength();
+        senderUuidOffset = skip(senderUuidLength);
+        jsonLength = readLength();
+        jsonOffset = skip(jsonLength);
+
+        if (position > payloadEnd) {
+            throw new IllegalArgumentException("Packet data overruns its declared length");
+        }
+    }
+
+    // v3 strings carry a VarInt length, v1/v2 use writeUTF's unsigned short
+    private int readLength() {
+        if (version >= 3) {
+            return readVarInt();
+        }
+        int length = ((data[position] & 0xFF) << 8) | (data[position + 1] & 0xFF);
+        position += 2;
+        return length;
+    }
+
+    private int readVarInt() {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            byte b = data[position++];
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("VarInt too long");
+    }
+
+    private int readInt() {
+        int value = readIntAt(position);
+        position += 4;
+        return value;
+    }
+
+    private int readIntAt(int offset) {
+        return ((data[offset] & 0xFF) << 24) | ((data[offset + 1] & 0xFF) << 16)
+                | ((data[offset + 2] & 0xFF) << 8) | (data[offset + 3] & 0xFF);
+    }
+
+    private long readLong(int offset) {
+        return ((long) readIntAt(offset) << 32) | (readIntAt(offset + 4) & 0xFFFFFFFFL);
+    }
+
+    private int skip(int length) {
+        checkBounds(position, length);
+        int offset = position;
+        position += length;
+        return offset;
+    }
+
+    // Compared by subtraction, since offset + length overflows for lengths close to Integer.MAX_VALUE
+    private void checkBounds(int offset, int length) {
+        if (length < 0 || length > data.length - offset) {
+            throw new IllegalArgumentException("Field exceeds packet bounds");
+        }
+    }
+
+    private String string(int offset, int length) {
+        if (version >= 3) {
+            return new String(data, offset, length, StandardCharsets.UTF_8);
+        }
+        // v1/v2 strings are modified UTF-8; let DataInputStream decode them together with their length prefix
+        try {
+            return new DataInputStream(new ByteArrayInputStream(data, offset - 2, length + 2)).readUTF();
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Malformed string in chat packet", e);
+        }
+    }
+}
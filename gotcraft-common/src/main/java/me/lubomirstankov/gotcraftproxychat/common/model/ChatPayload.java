@@ -0,0 +1,77 @@
+package me.lubomirstankov.gotcraftproxychat.common.model;
+
+import me.lubomirstankov.gotcraftproxychat.common.protocol.ProtocolIO;
+
+import java.io.*;
+
+/**
+ * The captured chat packet carried inside {@link ChatPacket#getPacketData()}
+ * Written as: int(typeHash), sender UUID string, component JSON
+ */
+public class ChatPayload {
+
+    private final int typeHash;
+    private final String senderUuid;
+    private final String json;
+
+    public ChatPayload(int typeHash, String senderUuid, String json) {
+        this.typeHash = typeHash;
+        this.senderUuid = senderUuid != null ? senderUuid : "";
+        this.json = json != null ? json : "";
+    }
+
+    public int getTypeHash() {
+        return typeHash;
+    }
+
+    public String getSenderUuid() {
+        return senderUuid;
+    }
+
+    public String getJson() {
+        return json;
+    }
+
+    /**
+     * Encode the payload for the given chat packet version
+     * @param version The enclosing ChatPacket version
+     * @return The encoded bytes
+     */
+    public byte[] encode(int version) {
+        try (ByteArrayOutputStream bos = new ByteArrayOutputStream();
+             DataOutputStream dos = new DataOutputStream(bos)) {
+
+            dos.writeInt(typeHash);
+            if (version >= 3) {
+                ProtocolIO.writeString(dos, senderUuid);
+                ProtocolIO.writeString(dos, json);
+            } else {
+                // v1/v2: modified UTF-8, limited to 65535 bytes
+                dos.writeUTF(senderUuid);
+                dos.writeUTF(json);
+            }
+
+            return bos.toByteArray();
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to serialize ChatPayload", e);
+        }
+    }
+
+    /**
+     * Decode a payload written for the given chat packet version
+     * @param data The encoded bytes
+     * @param version The enclosing ChatPacket version
+     * @return The decoded payload
+     */
+    public static ChatPayload decode(byte[] data, int version) {
+        try (DataInputStream dis = new DataInputStream(new ByteArrayInputStream(data))) {
+            int typeHash = dis.readInt();
+            if (version >= 3) {
+                return new ChatPayload(typeHash, ProtocolIO.readString(dis), ProtocolIO.readString(dis));
+            }
+            return new ChatPayload(typeHash, dis.readUTF(), dis.readUTF());
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to deserialize ChatPayload: " + e.getMessage(), e);
+        }
+    }
+}
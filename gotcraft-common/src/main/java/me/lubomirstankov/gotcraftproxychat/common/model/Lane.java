@@ -0,0 +1,47 @@
+package me.lubomirstankov.gotcraftproxychat.common.model;
+
+/**
+ * Delivery class of a chat packet; each lane is queued and scheduled separately
+ */
+public enum Lane {
+
+    /** Staff broadcasts and alerts: never batched, filtered or shed */
+    PRIORITY(0),
+    /** Regular player chat */
+    NORMAL(1),
+    /** Low-value traffic such as automated announcements, shed first under load */
+    BULK(2);
+
+    private static final Lane[] BY_ID = values();
+
+    private final byte id;
+
+    Lane(int id) {
+        this.id = (byte) id;
+    }
+
+    public byte getId() {
+        return id;
+    }
+
+    /**
+     * Get a lane by its wire id
+     * @param id The id
+     * @return The lane, or NORMAL for unknown ids
+     */
+    public static Lane of(int id) {
+        return id >= 0 && id < BY_ID.length ? BY_ID[id] : NORMAL;
+    }
+
+    /**
+     * Read the lane of a received frame without decoding it
+     * @param frame The plugin message data
+     * @return The lane of a v4+ chat packet, otherwise NORMAL (including fragments)
+     */
+    public static Lane peek(byte[] frame) {
+        if (frame.length > 1 && frame[0] >= 4 && frame[0] < 0x10) {
+            return of(frame[1]);
+        }
+        return NORMAL;
+    }
+}
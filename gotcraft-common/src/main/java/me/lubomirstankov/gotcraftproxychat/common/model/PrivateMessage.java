@@ -0,0 +1,160 @@
+package me.lubomirstankov.gotcraftproxychat.common.model;
+
+import me.lubomirstankov.gotcraftproxychat.common.protocol.FrameType;
+import me.lubomirstankov.gotcraftproxychat.common.protocol.ProtocolIO;
+
+import java.io.*;
+import java.util.UUID;
+
+/**
+ * Cross-server private message
+ * The same layout is used for the request to the proxy, the unicast delivery and the failure reply;
+ * only the frame type and the resolved target UUID differ
+ */
+public class PrivateMessage {
+
+    private final byte type;
+    private final UUID senderUuid;
+    private final String senderName;
+    private final String targetName;
+    private final UUID targetUuid;
+    private final String message;
+
+    private PrivateMessage(byte type, UUID senderUuid, String senderName, String targetName, UUID targetUuid, String message) {
+        this.type = type;
+        this.senderUuid = senderUuid;
+        this.senderName = senderName;
+        this.targetName = targetName;
+        this.targetUuid = targetUuid;
+        this.message = message;
+    }
+
+    /**
+     * Create a request for the proxy to route
+     * @param senderUuid The sender's UUID
+     * @param senderName The sender's name
+     * @param targetName The name the sender addressed
+     * @param message The plain message text
+     * @return The request
+     */
+    public static PrivateMessage request(UUID senderUuid, String senderName, String targetName, String message) {
+        return new PrivateMessage(FrameType.PRIVATE_MESSAGE, senderUuid, senderName, targetName, null, message);
+    }
+
+    /**
+     * Turn a request into a delivery for the resolved target
+     * @param targetUuid The target's UUID
+     * @param targetName The target's name as known to the proxy
+     * @return The delivery
+     */
+    public PrivateMessage toDelivery(UUID targetUuid, String targetName) {
+        return new PrivateMessage(FrameType.PRIVATE_MESSAGE_DELIVERY, senderUuid, senderName, targetName, targetUuid, message);
+    }
+
+    /**
+     * Turn a request into a failure reply for the sender
+     * @return The failure reply
+     */
+    public PrivateMessage toFailure() {
+        return new PrivateMessage(FrameType.PRIVATE_MESSAGE_FAILED, senderUuid, senderName, targetName, null, message);
+    }
+
+    /**
+     * Replace the text, e.g. after the word filter masked it
+     * @param message The new plain message text
+     * @return The message with the new text
+     */
+    public PrivateMessage withMessage(String message) {
+        return new PrivateMessage(type, senderUuid, senderName, targetName, targetUuid, message);
+    }
+
+    /**
+     * Get the frame type, one of the FrameType.PRIVATE_MESSAGE* constants
+     * @return The frame type
+     */
+    public byte getType() {
+        return type;
+    }
+
+    public UUID getSenderUuid() {
+        return senderUuid;
+    }
+
+    public String getSenderName() {
+        return senderName;
+    }
+
+    public String getTargetName() {
+        return targetName;
+    }
+
+    /**
+     * Get the resolved target UUID
+     * @return The target UUID, or null unless this is a delivery
+     */
+    public UUID getTargetUuid() {
+        return targetUuid;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    /**
+     * Serialize the message to a frame
+     * @return The serialized byte array
+     */
+    public byte[] serialize() {
+        try (ByteArrayOutputStream bos = new ByteArrayOutputStream();
+             DataOutputStream dos = new DataOutputStream(bos)) {
+
+            dos.writeByte(type);
+            ProtocolIO.writeUuid(dos, senderUuid);
+            ProtocolIO.writeString(dos, senderName);
+            ProtocolIO.writeString(dos, targetName);
+            dos.writeBoolean(targetUuid != null);
+            if (targetUuid != null) {
+                ProtocolIO.writeUuid(dos, targetUuid);
+            }
+            ProtocolIO.writeString(dos, message);
+
+            return bos.toByteArray();
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to serialize PrivateMessage", e);
+        }
+    }
+
+    /**
+     * Deserialize a private message frame of any of the three types
+     * @param data The byte array
+     * @return The deserialized message
+     */
+    public static PrivateMessage deserialize(byte[] data) {
+        try (DataInputStream dis = new DataInputStream(new ByteArrayInputStream(data))) {
+            byte type = dis.readByte();
+            if (type != FrameType.PRIVATE_MESSAGE && type != FrameType.PRIVATE_MESSAGE_DELIVERY
+                    && type != FrameType.PRIVATE_MESSAGE_FAILED) {
+                throw new IOException("Not a private message frame");
+            }
+
+            UUID senderUuid = ProtocolIO.readUuid(dis);
+            String senderName = ProtocolIO.readString(dis);
+            String targetName = ProtocolIO.readString(dis);
+            UUID targetUuid = dis.readBoolean() ? ProtocolIO.readUuid(dis) : null;
+            String message = ProtocolIO.readString(dis);
+
+            return new PrivateMessage(type, senderUuid, senderName, targetName, targetUuid, message);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to deserialize PrivateMessage: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "PrivateMessage{" +
+                "type=" + type +
+                ", senderName='" + senderName + '\'' +
+                ", targetName='" + targetName + '\'' +
+                '}';
+    }
+}
@@ -0,0 +1,148 @@
+package me.lubomirstankov.gotcraftproxychat.common.protocol;
+
+import me.lubomirstankov.gotcraftproxychat.common.model.ChatPacket;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+/**
+ * Chat packet versions and optional features one side of the gotcraft:chat channel supports
+ * Exchanged as HELLO / HELLO_ACK frames: [type][varint min version][varint max version][varint feature bits].
+ * Unknown feature bits are ignored, so new features can be added without a version bump.
+ */
+public final class Capabilities {
+
+    /** Payloads over one plugin message are split into FRAGMENT frames */
+    public static final int FEATURE_FRAGMENTS = 1;
+    /** Central configuration pushed by the proxy */
+    public static final int FEATURE_CONFIG_PUSH = 1 << 1;
+    /** Private messages routed by the proxy */
+    public static final int FEATURE_PRIVATE_MESSAGES = 1 << 2;
+    /** Network roster snapshots and deltas */
+    public static final int FEATURE_ROSTER = 1 << 3;
+
+    private static final int ALL_FEATURES = FEATURE_FRAGMENTS | FEATURE_CONFIG_PUSH | FEATURE_PRIVATE_MESSAGES
+            | FEATURE_ROSTER;
+
+    private static final Capabilities LOCAL = new Capabilities(ChatPacket.MIN_VERSION, ChatPacket.VERSION, ALL_FEATURES);
+
+    private final int minVersion;
+    private final int maxVersion;
+    private final int features;
+
+    public Capabilities(int minVersion, int maxVersion, int features) {
+        this.minVersion = minVersion;
+        this.maxVersion = maxVersion;
+        this.features = features;
+    }
+
+    /**
+     * Get what this build supports
+     * @return The local capabilities
+     */
+    public static Capabilities local() {
+        return LOCAL;
+    }
+
+    /**
+     * Get assumed capabilities for a peer that predates the handshake
+     * @param version The single chat packet version the peer reads
+     * @return Capabilities without optional features
+     */
+    public static Capabilities legacy(int version) {
+        return new Capabilities(ChatPacket.MIN_VERSION, version, 0);
+    }
+
+    public int getMinVersion() {
+        return minVersion;
+    }
+
+    public int getMaxVersion() {
+        return maxVersion;
+    }
+
+    public int getFeatures() {
+        return features;
+    }
+
+    /**
+     * Check whether a feature is supported
+     * @param feature One of the FEATURE_ bits
+     * @return true if the bit is set
+     */
+    public boolean supports(int feature) {
+        return (features & feature) == feature;
+    }
+
+    /**
+     * Pick the newest chat packet version both sides support
+     * @param peer The other side's capabilities
+     * @return The version, or -1 if the supported ranges do not overlap
+     */
+    public int negotiate(Capabilities peer) {
+        int version = Math.min(maxVersion, peer.maxVersion);
+        return version >= Math.max(minVersion, peer.minVersion) ? version : -1;
+    }
+
+    /**
+     * Encode as a HELLO or HELLO_ACK frame
+     * @param type {@link FrameType#HELLO} or {@link FrameType#HELLO_ACK}
+     * @return The frame
+     */
+    public byte[] toFrame(byte type) {
+        try (ByteArrayOutputStream bos = new ByteArrayOutputStream();
+             DataOutputStream dos = new DataOutputStream(bos)) {
+
+            dos.writeByte(type);
+            ProtocolIO.writeVarInt(dos, minVersion);
+            ProtocolIO.writeVarInt(dos, maxVersion);
+            ProtocolIO.writeVarInt(dos, features);
+
+            return bos.toByteArray();
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to serialize Capabilities", e);
+        }
+    }
+
+    /**
+     * Decode a HELLO or HELLO_ACK frame
+     * @param data The frame
+     * @return The sender's capabilities
+     * @throws IOException If the frame is malformed
+     */
+    public static Capabilities fromFrame(byte[] data) throws IOException {
+        DataInputStream dis = new DataInputStream(new ByteArrayInputStream(data));
+        byte type = dis.readByte();
+        if (type != FrameType.HELLO && type != FrameType.HELLO_ACK) {
+            throw new IOException("Not a handshake frame");
+        }
+
+        int minVersion = ProtocolIO.readVarInt(dis);
+        int maxVersion = ProtocolIO.readVarInt(dis);
+        if (minVersion < 1 || maxVersion < minVersion) {
+            throw new IOException("Invalid version range " + minVersion + "-" + maxVersion);
+        }
+        return new Capabilities(minVersion, maxVersion, ProtocolIO.readVarInt(dis));
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof Capabilities)) return false;
+        Capabilities that = (Capabilities) o;
+        return minVersion == that.minVersion && maxVersion == that.maxVersion && features == that.features;
+    }
+
+    @Override
+    public int hashCode() {
+        return (minVersion * 31 + maxVersion) * 31 + features;
+    }
+
+    @Override
+    public String toString() {
+        return "v" + minVersion + "-v" + maxVersion + " (features 0x" + Integer.toHexString(features) + ")";
+    }
+}
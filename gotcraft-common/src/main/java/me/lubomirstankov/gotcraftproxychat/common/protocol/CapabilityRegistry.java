@@ -0,0 +1,91 @@
+package me.lubomirstankov.gotcraftproxychat.common.protocol;
+
+import me.lubomirstankov.gotcraftproxychat.common.config.ConfigManager;
+import me.lubomirstankov.gotcraftproxychat.common.model.ChatPacket;
+
+import java.io.IOException;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Proxy-side record of what each backend announced in its HELLO
+ * Backends that have not sent one run an older plugin and are assumed to read only the configured legacy version.
+ */
+public class CapabilityRegistry {
+
+    private final Map<String, Capabilities> servers = new ConcurrentHashMap<>();
+    private final Capabilities legacy;
+
+    public CapabilityRegistry(Capabilities legacy) {
+        this.legacy = legacy;
+    }
+
+    /**
+     * Create a registry from the "handshake.legacy-version" setting
+     * @param configManager The loaded configuration
+     * @return The registry
+     * @throws IllegalArgumentException If the version is unknown
+     */
+    public static CapabilityRegistry fromConfig(ConfigManager configManager) {
+        int version = configManager.getInt("handshake.legacy-version", 2);
+        if (version < ChatPacket.MIN_VERSION || version > ChatPacket.VERSION) {
+            throw new IllegalArgumentException("handshake.legacy-version must be between "
+                    + ChatPacket.MIN_VERSION + " and " + ChatPacket.VERSION);
+        }
+        return new CapabilityRegistry(Capabilities.legacy(version));
+    }
+
+    /**
+     * Record a backend's HELLO
+     * @param serverName The backend
+     * @param hello The HELLO frame
+     * @return The previously recorded capabilities if they changed, otherwise null
+     * @throws IOException If the frame is malformed
+     */
+    public Capabilities accept(String serverName, byte[] hello) throws IOException {
+        Capabilities capabilities = Capabilities.fromFrame(hello);
+        Capabilities previous = servers.put(key(serverName), capabilities);
+        return previous != null && !previous.equals(capabilities) ? previous : null;
+    }
+
+    /**
+     * Forget what a backend announced, once its last player left or its connection dropped
+     * It announces itself again with its next player, possibly after an upgrade or a downgrade.
+     * @param serverName The backend
+     */
+    public void forget(String serverName) {
+        servers.remove(key(serverName));
+    }
+
+    /**
+     * Get what a backend supports
+     * @param serverName The backend
+     * @return The announced capabilities, or the legacy assumption
+     */
+    public Capabilities get(String serverName) {
+        return servers.getOrDefault(key(serverName), legacy);
+    }
+
+    /**
+     * Check whether a backend has sent a HELLO
+     * @param serverName The backend
+     * @return true if its capabilities are known
+     */
+    public boolean isKnown(String serverName) {
+        return servers.containsKey(key(serverName));
+    }
+
+    /**
+     * Get the chat packet version to encode for a backend
+     * @param serverName The backend
+     * @return The version, or -1 if this proxy cannot write any version the backend reads
+     */
+    public int versionFor(String serverName) {
+        return Capabilities.local().negotiate(get(serverName));
+    }
+
+    private static String key(String serverName) {
+        return serverName.toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,69 @@
+package me.lubomirstankov.gotcraftproxychat.common.protocol;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Splits payloads that exceed the plugin message size limit into sequenced fragment frames
+ */
+public final class Fragmenter {
+
+    /** Largest frame we send; stays below the 32767 byte serverbound plugin message limit */
+    public static final int MAX_FRAME_SIZE = 30_000;
+
+    // FRAGMENT byte + message id + index and count VarInts (at most 5 bytes each)
+    private static final int HEADER_SIZE = 1 + 8 + 5 + 5;
+
+    private Fragmenter() {
+    }
+
+    /**
+     * Split a payload into frames of at most {@link #MAX_FRAME_SIZE} bytes
+     * @param payload The complete payload
+     * @return The payload itself if it fits, otherwise the fragment frames in order
+     */
+    public static List<byte[]> split(byte[] payload) {
+        return split(payload, MAX_FRAME_SIZE);
+    }
+
+    /**
+     * Split a payload into frames of at most maxFrameSize bytes
+     * @param payload The complete payload
+     * @param maxFrameSize The maximum size of a single frame
+     * @return The payload itself if it fits, otherwise the fragment frames in order
+     */
+    public static List<byte[]> split(byte[] payload, int maxFrameSize) {
+        if (payload.length <= maxFrameSize) {
+            return List.of(payload);
+        }
+
+        int chunkSize = maxFrameSize - HEADER_SIZE;
+        int count = (payload.length + chunkSize - 1) / chunkSize;
+        long messageId = ThreadLocalRandom.current().nextLong();
+        List<byte[]> frames = new ArrayList<>(count);
+
+        try {
+            for (int index = 0; index < count; index++) {
+                int offset = index * chunkSize;
+                int length = Math.min(chunkSize, payload.length - offset);
+
+                ByteArrayOutputStream bos = new ByteArrayOutputStream(HEADER_SIZE + length);
+                DataOutputStream dos = new DataOutputStream(bos);
+                dos.writeByte(FrameType.FRAGMENT);
+                dos.writeLong(messageId);
+                ProtocolIO.writeVarInt(dos, index);
+                ProtocolIO.writeVarInt(dos, count);
+                dos.write(payload, offset, length);
+                frames.add(bos.toByteArray());
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to fragment payload", e);
+        }
+
+        return frames;
+    }
+}
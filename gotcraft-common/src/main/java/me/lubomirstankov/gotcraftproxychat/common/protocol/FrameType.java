@@ -0,0 +1,50 @@
+package me.lubomirstankov.gotcraftproxychat.common.protocol;
+
+/**
+ * Leading byte of every frame on the gotcraft:chat channel
+ * Chat packets use their wire version (v1 starts with 0x00, later versions with the version number)
+ */
+public final class FrameType {
+
+    /** A chunk of a payload that was too large for one plugin message */
+    public static final byte FRAGMENT = 0x10;
+
+    /** Central configuration pushed from the proxy to a backend */
+    public static final byte CONFIG_SNAPSHOT = 0x11;
+
+    /** Private message from a backend player, addressed by target name, for the proxy to route */
+    public static final byte PRIVATE_MESSAGE = 0x12;
+
+    /** Private message routed by the proxy to the target player's backend */
+    public static final byte PRIVATE_MESSAGE_DELIVERY = 0x13;
+
+    /** Private message returned to the sender's backend because the target is not online */
+    public static final byte PRIVATE_MESSAGE_FAILED = 0x14;
+
+    /** Full network roster pushed from the proxy */
+    public static final byte ROSTER_SNAPSHOT = 0x15;
+
+    /** Batched roster changes since the previous roster version */
+    public static final byte ROSTER_DELTA = 0x16;
+
+    /** Request from a backend whose roster mirror fell behind for a fresh snapshot */
+    public static final byte ROSTER_RESYNC = 0x17;
+
+    /** Wire versions and features a backend supports, sent when it gets its first player */
+    public static final byte HELLO = 0x18;
+
+    /** The proxy's answer to HELLO with its own versions and features */
+    public static final byte HELLO_ACK = 0x19;
+
+    private FrameType() {
+    }
+
+    /**
+     * Get the frame type of a received plugin message
+     * @param data The plugin message data
+     * @return The leading byte, or -1 for an empty message
+     */
+    public static int of(byte[] data) {
+        return data.length > 0 ? data[0] : -1;
+    }
+}
@@ -0,0 +1,134 @@
+package me.lubomirstankov.gotcraftproxychat.common.protocol;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+/**
+ * Binary encoding helpers for the gotcraft:chat wire format
+ * Strings are length-prefixed UTF-8 with a VarInt length, so there is no 65535 byte ceiling
+ */
+public final class ProtocolIO {
+
+    // Upper bound for inputs that cannot report what is left; no frame comes close
+    private static final int MAX_LENGTH = 16 * 1024 * 1024;
+
+    private ProtocolIO() {
+    }
+
+    /**
+     * Write a VarInt (7 bits per byte, little-endian groups)
+     * @param out The output
+     * @param value The value
+     */
+    public static void writeVarInt(DataOutput out, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            out.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+
+    /**
+     * Read a VarInt
+     * @param in The input
+     * @return The value
+     */
+    public static int readVarInt(DataInput in) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            byte b = in.readByte();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("VarInt too long");
+    }
+
+    /**
+     * Write a length-prefixed UTF-8 string
+     * @param out The output
+     * @param value The string, null is written as empty
+     */
+    public static void writeString(DataOutput out, String value) throws IOException {
+        byte[] bytes = (value != null ? value : "").getBytes(StandardCharsets.UTF_8);
+        writeVarInt(out, bytes.length);
+        out.write(bytes);
+    }
+
+    /**
+     * Read a length-prefixed UTF-8 string
+     * @param in The input
+     * @return The string
+     */
+    public static String readString(DataInput in) throws IOException {
+        return new String(readBytes(in), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Write a length-prefixed byte array
+     * @param out The output
+     * @param bytes The bytes
+     */
+    public static void writeBytes(DataOutput out, byte[] bytes) throws IOException {
+        writeVarInt(out, bytes.length);
+        out.write(bytes);
+    }
+
+    /**
+     * Read a length-prefixed byte array
+     * @param in The input
+     * @return The bytes
+     */
+    public static byte[] readBytes(DataInput in) throws IOException {
+        byte[] bytes = new byte[readLength(in)];
+        in.readFully(bytes);
+        return bytes;
+    }
+
+    /**
+     * Read a VarInt length and check it against the input that is left, before anything is allocated for it
+     * @param in The input
+     * @return The length
+     * @throws IOException If the length is negative or longer than the remaining input
+     */
+    public static int readLength(DataInput in) throws IOException {
+        int length = readVarInt(in);
+        if (length < 0) {
+            throw new IOException("Negative length: " + length);
+        }
+        int remaining = remaining(in);
+        if (length > remaining) {
+            throw new IOException("Length " + length + " exceeds the " + remaining + " remaining bytes");
+        }
+        return length;
+    }
+
+    // Frames are decoded from byte arrays, where available() is exactly what is left
+    private static int remaining(DataInput in) throws IOException {
+        return in instanceof InputStream stream ? stream.available() : MAX_LENGTH;
+    }
+
+    /**
+     * Write a UUID as two longs
+     * @param out The output
+     * @param uuid The UUID
+     */
+    public static void writeUuid(DataOutput out, UUID uuid) throws IOException {
+        out.writeLong(uuid.getMostSignificantBits());
+        out.writeLong(uuid.getLeastSignificantBits());
+    }
+
+    /**
+     * Read a UUID written as two longs
+     * @param in The input
+     * @return The UUID
+     */
+    public static UUID readUuid(DataInput in) throws IOException {
+        return new UUID(in.readLong(), in.readLong());
+    }
+}
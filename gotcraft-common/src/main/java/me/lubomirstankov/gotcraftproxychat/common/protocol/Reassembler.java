@@ -0,0 +1,150 @@
+package me.lubomirstankov.gotcraftproxychat.common.protocol;
+
+import me.lubomirstankov.gotcraftproxychat.common.metrics.Metrics;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Reassembles fragment frames produced by {@link Fragmenter}
+ * Buffers are bounded in total size and incomplete messages expire after a timeout
+ */
+public class Reassembler {
+
+    private final int maxBufferedBytes;
+    private final int maxFragments;
+    private final long timeoutMillis;
+
+    // Insertion ordered, so the eldest entry is always the first to evict
+    private final Map<String, Pending> pending = new LinkedHashMap<>();
+    private int bufferedBytes;
+
+    public Reassembler(int maxBufferedBytes, long timeoutMillis) {
+        this.maxBufferedBytes = maxBufferedBytes;
+        // The most full-size frames a payload that fits the buffer can be split into
+        this.maxFragments = maxBufferedBytes / Fragmenter.MAX_FRAME_SIZE + 1;
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    /**
+     * Accept a received frame
+     * @param source Identifies the sender (e.g. origin server name), fragments are only joined per source
+     * @param frame The received plugin message data
+     * @return The complete payload, the frame itself if it is not a fragment, or null if more fragments are needed
+     * @throws IOException If the fragment header is malformed
+     */
+    public synchronized byte[] accept(String source, byte[] frame) throws IOException {
+        if (FrameType.of(frame) != FrameType.FRAGMENT) {
+            return frame;
+        }
+
+        long now = System.currentTimeMillis();
+        expire(now);
+
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(frame));
+        in.readByte();
+        long messageId = in.readLong();
+        int index = ProtocolIO.readVarInt(in);
+        int count = ProtocolIO.readVarInt(in);
+        int length = in.available();
+
+        // Checked before anything is allocated for the message, so a forged header cannot reserve memory
+        if (count <= 1 || count > maxFragments || index < 0 || index >= count || length == 0
+                || (long) count * length > maxBufferedBytes * 2L) {
+            throw new IOException("Invalid fragment " + index + "/" + count + " of " + length + " bytes");
+        }
+
+        String key = source + '#' + messageId;
+        Pending message = pending.get(key);
+        if (message == null) {
+            message = new Pending(count, now);
+            pending.put(key, message);
+        } else if (message.chunks.length != count) {
+            discard(key, message);
+            throw new IOException("Fragment count mismatch for message " + messageId);
+        }
+
+        if (message.chunks[index] == null) {
+            byte[] chunk = new byte[length];
+            in.readFully(chunk);
+            message.chunks[index] = chunk;
+            message.received++;
+            message.size += length;
+            bufferedBytes += length;
+        }
+
+        if (message.received == count) {
+            discard(key, message);
+            return message.join();
+        }
+
+        // Over budget: drop the oldest incomplete messages, never the one that just grew
+        Iterator<Map.Entry<String, Pending>> it = pending.entrySet().iterator();
+        while (bufferedBytes > maxBufferedBytes && it.hasNext()) {
+            Map.Entry<String, Pending> eldest = it.next();
+            if (eldest.getValue() == message) continue;
+            bufferedBytes -= eldest.getValue().size;
+            it.remove();
+            Metrics.counter("fragments.dropped").increment();
+        }
+        if (bufferedBytes > maxBufferedBytes) {
+            discard(key, message);
+            Metrics.counter("fragments.dropped").increment();
+        }
+
+        return null;
+    }
+
+    /**
+     * Drop all buffered fragments
+     */
+    public synchronized void clear() {
+        pending.clear();
+        bufferedBytes = 0;
+    }
+
+    private void expire(long now) {
+        Iterator<Pending> it = pending.values().iterator();
+        while (it.hasNext()) {
+            Pending message = it.next();
+            if (now - message.createdAt < timeoutMillis) {
+                break;
+            }
+            bufferedBytes -= message.size;
+            it.remove();
+            Metrics.counter("fragments.expired").increment();
+        }
+    }
+
+    private void discard(String key, Pending message) {
+        if (pending.remove(key) != null) {
+            bufferedBytes -= message.size;
+        }
+    }
+
+    private static final class Pending {
+        private final byte[][] chunks;
+        private final long createdAt;
+        private int received;
+        private int size;
+
+        private Pending(int count, long createdAt) {
+            this.chunks = new byte[count][];
+            this.createdAt = createdAt;
+        }
+
+        private byte[] join() {
+            byte[] payload = new byte[size];
+            int offset = 0;
+            for (byte[] chunk : chunks) {
+                System.arraycopy(chunk, 0, payload, offset, chunk.length);
+                offset += chunk.length;
+            }
+            return payload;
+        }
+    }
+}
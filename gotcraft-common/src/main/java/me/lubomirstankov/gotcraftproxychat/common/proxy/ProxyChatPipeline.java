@@ -0,0 +1,276 @@
+package me.lubomirstankov.gotcraftproxychat.common.proxy;
+
+import me.lubomirstankov.gotcraftproxychat.common.concurrent.LaneExecutor;
+import me.lubomirstankov.gotcraftproxychat.common.config.ConfigManager;
+import me.lubomirstankov.gotcraftproxychat.common.config.NetworkConfig;
+import me.lubomirstankov.gotcraftproxychat.common.directory.PlayerDirectory;
+import me.lubomirstankov.gotcraftproxychat.common.filter.FloodFilter;
+import me.lubomirstankov.gotcraftproxychat.common.jfr.ProxyFanoutEvent;
+import me.lubomirstankov.gotcraftproxychat.common.jfr.ProxyReceiveEvent;
+import me.lubomirstankov.gotcraftproxychat.common.metrics.Metrics;
+import me.lubomirstankov.gotcraftproxychat.common.model.ChatPacketEncodings;
+import me.lubomirstankov.gotcraftproxychat.common.model.ChatPacketView;
+import me.lubomirstankov.gotcraftproxychat.common.model.Lane;
+import me.lubomirstankov.gotcraftproxychat.common.model.PrivateMessage;
+import me.lubomirstankov.gotcraftproxychat.common.protocol.Capabilities;
+import me.lubomirstankov.gotcraftproxychat.common.protocol.CapabilityRegistry;
+import me.lubomirstankov.gotcraftproxychat.common.protocol.FrameType;
+import me.lubomirstankov.gotcraftproxychat.common.protocol.Reassembler;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Platform-neutral handling of every frame a backend sends on the gotcraft:chat channel
+ * Frames are reassembled, handshakes, private messages and roster resyncs are dispatched, and chat passes the
+ * word and flood filters before it is encoded once per protocol version and fanned out to the other backends.
+ * The proxy plugins only claim the plugin message events and feed them to {@link #receive(String, byte[])}.
+ * @param <S> The proxy's server handle type
+ */
+public class ProxyChatPipeline<S> {
+
+    private final ProxyPlatform<S> platform;
+    private final Supplier<NetworkConfig> config;
+    private final Reassembler reassembler = new Reassembler(16 * 1024 * 1024, 10_000L);
+    private final FloodFilter floodFilter = new FloodFilter();
+    private final CapabilityRegistry capabilities;
+
+    // Forwarding runs here so the Netty thread that read the message only hands it off
+    private final LaneExecutor forwarder;
+
+    /**
+     * @param platform The proxy the pipeline runs on
+     * @param configManager The loaded proxy configuration, for the forwarding settings
+     * @param capabilities What each backend announced, shared with the proxy's other services
+     * @param config Supplies the network configuration in effect
+     */
+    public ProxyChatPipeline(ProxyPlatform<S> platform, ConfigManager configManager, CapabilityRegistry capabilities,
+                             Supplier<NetworkConfig> config) {
+        this.platform = platform;
+        this.config = config;
+        this.forwarder = LaneExecutor.fromConfig("GotCraft Forwarder", configManager, "forwarding");
+        this.capabilities = capabilities;
+    }
+
+    public void initialize() {
+        Metrics.gauge("forward.queued", forwarder::getQueuedTasks);
+        forwarder.registerGauges();
+    }
+
+    /**
+     * Queue a frame received from a backend
+     * One stripe per origin and lane keeps each server's frames (and fragments) in order within a lane;
+     * fragments always travel the normal lane since their lane is only known once reassembled
+     * @param originServerName The backend that sent the frame
+     * @param message The plugin message data
+     */
+    public void receive(String originServerName, byte[] message) {
+        Lane lane = Lane.peek(message);
+        if (!forwarder.execute(lane, originServerName, () -> process(originServerName, message))) {
+            Metrics.counter("forward.dropped").increment();
+        }
+    }
+
+    /**
+     * Forget per-player state of a player who left the network
+     * @param uuid The player's UUID
+     */
+    public void playerLeft(UUID uuid) {
+        floodFilter.forget(uuid);
+    }
+
+    private void process(String originServerName, byte[] message) {
+        try {
+            ProxyReceiveEvent receiveEvent = new ProxyReceiveEvent();
+            receiveEvent.begin();
+
+            byte[] data = reassembler.accept(originServerName, message);
+            int type = data != null ? FrameType.of(data) : -1;
+            if (type == FrameType.HELLO) {
+                handleHello(originServerName, data);
+                return;
+            }
+            if (type == FrameType.PRIVATE_MESSAGE) {
+                routePrivateMessage(data, originServerName);
+                return;
+            }
+            if (type == FrameType.ROSTER_RESYNC) {
+                platform.resyncRoster(originServerName);
+                return;
+            }
+
+            boolean complete = data != null; // Otherwise waiting for more fragments
+            int payloadSize = complete ? data.length : 0;
+
+            if (complete) {
+                // Validate the packet layout without copying it, and forward the original bytes unless a filter rewrites them
+                NetworkConfig networkConfig = config.get();
+                ChatPacketView view = new ChatPacketView(data);
+                byte[] filtered = networkConfig.getWordFilter().filter(data, view);
+                if (filtered != null && filtered != data) {
+                    view = new ChatPacketView(filtered);
+                }
+                // Staff broadcasts are never held back or collapsed as repeats; the lane is read from the
+                // reassembled packet, since a fragmented one was queued on the normal stripe
+                if (filtered != null && view.getLane() != Lane.PRIORITY) {
+                    filtered = floodFilter.filter(filtered, view, networkConfig.getFloodSettings());
+                }
+                data = filtered;
+            }
+
+            if (receiveEvent.shouldCommit()) {
+                receiveEvent.originServer = originServerName;
+                receiveEvent.frameSize = message.length;
+                receiveEvent.payloadSize = payloadSize;
+                receiveEvent.complete = complete;
+                receiveEvent.commit();
+            }
+
+            if (data == null) {
+                return; // Incomplete, blocked by the word filter or suppressed as a repeat
+            }
+
+            forwardPacketToServers(data, originServerName);
+        } catch (Exception e) {
+            platform.error("Failed to process plugin message: " + e.getMessage());
+        }
+    }
+
+    private void handleHello(String serverName, byte[] hello) throws IOException {
+        boolean known = capabilities.isKnown(serverName);
+        Capabilities previous = capabilities.accept(serverName, hello);
+        if (!known || previous != null) {
+            int version = capabilities.versionFor(serverName);
+            if (version < 0) {
+                platform.warning("Server " + serverName + " supports chat protocol " + capabilities.get(serverName)
+                        + ", which this proxy cannot write; it will not receive chat");
+            } else {
+                platform.info("Server " + serverName + " supports chat protocol " + capabilities.get(serverName)
+                        + ", sending v" + version);
+            }
+        }
+
+        S server = platform.getServer(serverName);
+        if (server != null) {
+            platform.send(server, Capabilities.local().toFrame(FrameType.HELLO_ACK));
+        }
+
+        // Config and roster were held back while the server was unknown; both skip it if it lacks the feature
+        if (!known || previous != null) {
+            platform.pushConfig(serverName);
+            platform.resyncRoster(serverName);
+        }
+    }
+
+    // The delivery goes to the target's server and, as confirmation, to the sender's; a failure only to the sender's
+    private void routePrivateMessage(byte[] data, String originServerName) {
+        PrivateMessage request = PrivateMessage.deserialize(data);
+        String filtered = config.get().getWordFilter().filter(request.getMessage());
+        if (filtered == null) {
+            return; // Blocked by the word filter; the sender never sees a sent line
+        }
+        if (!filtered.equals(request.getMessage())) {
+            request = request.withMessage(filtered);
+        }
+
+        PlayerDirectory.Entry<S> target = platform.getDirectory().find(request.getTargetName());
+
+        if (target == null) {
+            Metrics.counter("pm.unknown-target").increment();
+            fail(request, originServerName);
+            return;
+        }
+        if (!capabilities.get(platform.getName(target.getServer())).supports(Capabilities.FEATURE_PRIVATE_MESSAGES)) {
+            // The target's server runs a plugin that cannot show a delivery
+            Metrics.counter("pm.unsupported").increment();
+            fail(request, originServerName);
+            return;
+        }
+
+        byte[] delivery = request.toDelivery(target.getUuid(), target.getName()).serialize();
+        platform.send(target.getServer(), delivery);
+        if (!platform.getName(target.getServer()).equalsIgnoreCase(originServerName)) {
+            S origin = platform.getServer(originServerName);
+            if (origin != null) {
+                platform.send(origin, delivery);
+            }
+        }
+        Metrics.counter("pm.routed").increment();
+    }
+
+    private void fail(PrivateMessage request, String originServerName) {
+        S origin = platform.getServer(originServerName);
+        if (origin != null) {
+            platform.send(origin, request.toFailure().serialize());
+        }
+    }
+
+    private void forwardPacketToServers(byte[] data, String originServerName) {
+        ProxyFanoutEvent fanoutEvent = new ProxyFanoutEvent();
+        fanoutEvent.begin();
+
+        // Each backend gets the newest version it announced, fragmented only if it can reassemble;
+        // each version is encoded once per message
+        ChatPacketEncodings encodings = new ChatPacketEncodings(data);
+        NetworkConfig networkConfig = config.get();
+        int targets = 0;
+        int framesSent = 0;
+
+        for (S server : platform.getServers()) {
+            String serverName = platform.getName(server);
+            if (serverName.equalsIgnoreCase(originServerName)) {
+                continue;
+            }
+
+            if (!networkConfig.shouldRoute(originServerName, serverName)) {
+                continue;
+            }
+
+            List<byte[]> frames = framesFor(encodings, serverName);
+            if (frames == null) {
+                continue;
+            }
+
+            targets++;
+            framesSent += frames.size();
+            for (byte[] frame : frames) {
+                if (!platform.send(server, frame)) {
+                    break;
+                }
+            }
+        }
+
+        if (fanoutEvent.shouldCommit()) {
+            fanoutEvent.originServer = originServerName;
+            fanoutEvent.payloadSize = data.length;
+            fanoutEvent.targetServers = targets;
+            fanoutEvent.frames = framesSent;
+            fanoutEvent.commit();
+        }
+    }
+
+    private List<byte[]> framesFor(ChatPacketEncodings encodings, String serverName) {
+        int version = capabilities.versionFor(serverName);
+        if (version < 0) {
+            Metrics.counter("handshake.incompatible").increment();
+            return null;
+        }
+        try {
+            return encodings.framesFor(capabilities.get(serverName));
+        } catch (RuntimeException e) {
+            // E.g. a line too long for the modified UTF-8 strings of v1/v2
+            Metrics.counter("handshake.unencodable").increment();
+            return null;
+        }
+    }
+
+    /**
+     * Stop the forwarding workers of all lanes, letting queued messages finish briefly
+     */
+    public void shutdown() {
+        forwarder.shutdown(2, TimeUnit.SECONDS);
+    }
+}
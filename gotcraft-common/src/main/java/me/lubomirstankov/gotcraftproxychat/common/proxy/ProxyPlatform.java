@@ -0,0 +1,64 @@
+package me.lubomirstankov.gotcraftproxychat.common.proxy;
+
+import me.lubomirstankov.gotcraftproxychat.common.directory.PlayerDirectory;
+
+import java.util.Collection;
+
+/**
+ * What {@link ProxyChatPipeline} needs from the proxy it runs on
+ * @param <S> The proxy's server handle type
+ */
+public interface ProxyPlatform<S> {
+
+    /**
+     * Get every backend registered with the proxy
+     * @return The servers
+     */
+    Collection<S> getServers();
+
+    /**
+     * Look up a backend by name
+     * @param serverName The server name
+     * @return The server, or null if the proxy does not know it
+     */
+    S getServer(String serverName);
+
+    /**
+     * Get the name the proxy knows a backend by
+     * @param server The server
+     * @return The server name
+     */
+    String getName(S server);
+
+    /**
+     * Send a frame to a backend on the gotcraft:chat channel
+     * @param server The server
+     * @param frame The frame
+     * @return false if the frame could not be sent (e.g. nobody is online there), so later frames can be skipped
+     */
+    boolean send(S server, byte[] frame);
+
+    /**
+     * Get the directory of online players used to route private messages
+     * @return The directory
+     */
+    PlayerDirectory<S> getDirectory();
+
+    /**
+     * Send a full roster snapshot to a backend whose mirror fell behind
+     * @param serverName The requesting server
+     */
+    void resyncRoster(String serverName);
+
+    /**
+     * Send the current network configuration to a backend
+     * @param serverName The server
+     */
+    void pushConfig(String serverName);
+
+    void info(String message);
+
+    void warning(String message);
+
+    void error(String message);
+}
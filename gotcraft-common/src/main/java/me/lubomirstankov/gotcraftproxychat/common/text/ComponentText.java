@@ -0,0 +1,238 @@
+package me.lubomirstankov.gotcraftproxychat.common.text;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Extracts the visible text from chat component JSON without a JSON library
+ * Only text that ends up in the chat line counts: "text" values and plain string components,
+ * never hover or click contents, colors or other keys
+ */
+public final class ComponentText {
+
+    private ComponentText() {
+    }
+
+    /**
+     * A visible text value and where its string literal sits in the JSON
+     */
+    public static final class Segment {
+        private final int start;
+        private final int end;
+        private final String value;
+
+        private Segment(int start, int end, String value) {
+            this.start = start;
+            this.end = end;
+            this.value = value;
+        }
+
+        /** Index of the opening quote */
+        public int getStart() {
+            return start;
+        }
+
+        /** Index after the closing quote */
+        public int getEnd() {
+            return end;
+        }
+
+        /** The unescaped text */
+        public String getValue() {
+            return value;
+        }
+    }
+
+    /**
+     * Get the plain text of a component
+     * @param json The component JSON
+     * @return The concatenated visible text
+     */
+    public static String plainText(String json) {
+        StringBuilder builder = new StringBuilder();
+        for (Segment segment : segments(json)) {
+            builder.append(segment.value);
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Find the visible text segments of a component in display order
+     * @param json The component JSON
+     * @return The segments, or an empty list if the JSON is malformed
+     */
+    public static List<Segment> segments(String json) {
+        List<Segment> segments = new ArrayList<>();
+        try {
+            Parser parser = new Parser(json, segments);
+            parser.skipWhitespace();
+            parser.value(true, false);
+        } catch (IndexOutOfBoundsException | IllegalArgumentException e) {
+            return Collections.emptyList();
+        }
+        return segments;
+    }
+
+    /**
+     * Replace the text of segments, keeping the rest of the JSON intact
+     * @param json The component JSON
+     * @param segments Segments previously returned by {@link #segments(String)}
+     * @param values The new values, one per segment
+     * @return The rewritten JSON
+     */
+    public static String replace(String json, List<Segment> segments, List<String> values) {
+        StringBuilder builder = new StringBuilder(json.length() + 16);
+        int last = 0;
+        for (int i = 0; i < segments.size(); i++) {
+            Segment segment = segments.get(i);
+            builder.append(json, last, segment.start);
+            quote(builder, values.get(i));
+            last = segment.end;
+        }
+        builder.append(json, last, json.length());
+        return builder.toString();
+    }
+
+    /**
+     * Append a gray suffix to a component, e.g. a repeat counter
+     * @param json The component JSON
+     * @param suffix The text to append
+     * @return The new component JSON
+     */
+    public static String appendSuffix(String json, String suffix) {
+        StringBuilder builder = new StringBuilder(json.length() + suffix.length() + 48);
+        builder.append("{\"text\":\"\",\"extra\":[").append(json).append(",{\"text\":");
+        quote(builder, suffix);
+        builder.append(",\"color\":\"gray\"}]}");
+        return builder.toString();
+    }
+
+    private static void quote(StringBuilder builder, String value) {
+        builder.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"': builder.append("\\\""); break;
+                case '\\': builder.append("\\\\"); break;
+                case '\n': builder.append("\\n"); break;
+                case '\r': builder.append("\\r"); break;
+                case '\t': builder.append("\\t"); break;
+                default:
+                    if (c < 0x20) {
+                        builder.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        builder.append(c);
+                    }
+            }
+        }
+        builder.append('"');
+    }
+
+    private static final class Parser {
+        private final String json;
+        private final List<Segment> segments;
+        private int pos;
+
+        private Parser(String json, List<Segment> segments) {
+            this.json = json;
+            this.segments = segments;
+        }
+
+        // visible: strings here are shown (root, "extra"/"with" elements); hidden: inside hover/click data
+        private void value(boolean visible, boolean hidden) {
+            char c = json.charAt(pos);
+            if (c == '{') {
+                object(hidden);
+            } else if (c == '[') {
+                array(hidden);
+            } else if (c == '"') {
+                int start = pos;
+                String value = string();
+                if (visible && !hidden) {
+                    segments.add(new Segment(start, pos, value));
+                }
+            } else {
+                // Number, boolean or null
+                while (pos < json.length() && ",}] \t\r\n".indexOf(json.charAt(pos)) < 0) {
+                    pos++;
+                }
+            }
+            skipWhitespace();
+        }
+
+        private void object(boolean hidden) {
+            pos++;
+            skipWhitespace();
+            while (json.charAt(pos) != '}') {
+                String key = string();
+                skipWhitespace();
+                expect(':');
+                skipWhitespace();
+                boolean childHidden = hidden || key.equals("hoverEvent") || key.equals("clickEvent")
+                        || key.equals("hover_event") || key.equals("click_event");
+                boolean childVisible = key.equals("text") || key.equals("extra") || key.equals("with");
+                value(childVisible, childHidden);
+                if (json.charAt(pos) == ',') {
+                    pos++;
+                    skipWhitespace();
+                }
+            }
+            pos++;
+        }
+
+        private void array(boolean hidden) {
+            pos++;
+            skipWhitespace();
+            while (json.charAt(pos) != ']') {
+                value(true, hidden);
+                if (json.charAt(pos) == ',') {
+                    pos++;
+                    skipWhitespace();
+                }
+            }
+            pos++;
+        }
+
+        private String string() {
+            expect('"');
+            StringBuilder builder = new StringBuilder();
+            while (true) {
+                char c = json.charAt(pos++);
+                if (c == '"') {
+                    return builder.toString();
+                }
+                if (c != '\\') {
+                    builder.append(c);
+                    continue;
+                }
+                char escaped = json.charAt(pos++);
+                switch (escaped) {
+                    case 'n': builder.append('\n'); break;
+                    case 't': builder.append('\t'); break;
+                    case 'r': builder.append('\r'); break;
+                    case 'b': builder.append('\b'); break;
+                    case 'f': builder.append('\f'); break;
+                    case 'u':
+                        builder.append((char) Integer.parseInt(json.substring(pos, pos + 4), 16));
+                        pos += 4;
+                        break;
+                    default: builder.append(escaped);
+                }
+            }
+        }
+
+        private void expect(char expected) {
+            if (json.charAt(pos) != expected) {
+                throw new IllegalArgumentException("Expected '" + expected + "' at " + pos);
+            }
+            pos++;
+        }
+
+        private void skipWhitespace() {
+            while (pos < json.length() && Character.isWhitespace(json.charAt(pos))) {
+                pos++;
+            }
+        }
+    }
+}
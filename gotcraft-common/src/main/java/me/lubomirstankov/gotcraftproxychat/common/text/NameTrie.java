@@ -0,0 +1,168 @@
+package me.lubomirstankov.gotcraftproxychat.common.text;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Trie of player names for finding mentions in chat text in a single pass
+ * Names are matched case-insensitively over the Minecraft name alphabet (letters, digits and underscore)
+ * and only as whole words, so "@Steve", "steve," and "hi steve" match but "steven" does not.
+ * Names are added and removed one at a time; nothing is rebuilt. Not thread-safe.
+ *
+ * @param <V> The value stored for each name, e.g. the player's UUID
+ */
+public class NameTrie<V> {
+
+    private static final int ALPHABET = 37;
+
+    private final Node<V> root = new Node<>();
+    private int size;
+
+    /**
+     * Add or replace a name
+     * @param name The name
+     * @param value The value returned when the name is found
+     * @return false if the name is empty or contains characters outside the name alphabet
+     */
+    @SuppressWarnings("unchecked")
+    public boolean put(String name, V value) {
+        if (!isValid(name)) {
+            return false;
+        }
+
+        Node<V> node = root;
+        for (int i = 0; i < name.length(); i++) {
+            int index = index(name.charAt(i));
+            if (node.children == null) {
+                node.children = new Node[ALPHABET];
+            }
+            if (node.children[index] == null) {
+                node.children[index] = new Node<>();
+                node.childCount++;
+            }
+            node = node.children[index];
+        }
+
+        if (node.value == null) {
+            size++;
+        }
+        node.value = value;
+        return true;
+    }
+
+    /**
+     * Remove a name, pruning nodes no other name uses
+     * @param name The name
+     * @return The removed value, or null if the name was not present
+     */
+    public V remove(String name) {
+        if (!isValid(name)) {
+            return null;
+        }
+
+        @SuppressWarnings("unchecked")
+        Node<V>[] path = new Node[name.length() + 1];
+        Node<V> node = root;
+        path[0] = node;
+        for (int i = 0; i < name.length(); i++) {
+            node = node.children != null ? node.children[index(name.charAt(i))] : null;
+            if (node == null) {
+                return null;
+            }
+            path[i + 1] = node;
+        }
+
+        V removed = node.value;
+        if (removed == null) {
+            return null;
+        }
+        node.value = null;
+        size--;
+
+        // Walk back up while the node carries nothing
+        for (int i = name.length(); i > 0 && path[i].value == null && path[i].childCount == 0; i--) {
+            Node<V> parent = path[i - 1];
+            parent.children[index(name.charAt(i - 1))] = null;
+            if (--parent.childCount == 0) {
+                parent.children = null;
+            }
+        }
+        return removed;
+    }
+
+    /**
+     * Find every name mentioned in a text
+     * @param text The plain text of a chat line
+     * @return The values of the mentioned names, each once, in order of first mention
+     */
+    public List<V> find(String text) {
+        List<V> found = null;
+        int length = text.length();
+        int i = 0;
+        while (i < length) {
+            if (index(text.charAt(i)) < 0) {
+                i++;
+                continue;
+            }
+
+            // At the start of a word: follow it through the trie to its end
+            Node<V> node = root;
+            int j = i;
+            int index;
+            while (j < length && (index = index(text.charAt(j))) >= 0) {
+                node = node != null && node.children != null ? node.children[index] : null;
+                j++;
+            }
+
+            if (node != null && node.value != null) {
+                if (found == null) {
+                    found = new ArrayList<>(2);
+                }
+                if (!found.contains(node.value)) {
+                    found.add(node.value);
+                }
+            }
+            i = j;
+        }
+        return found != null ? found : List.of();
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    private static boolean isValid(String name) {
+        if (name == null || name.isEmpty()) {
+            return false;
+        }
+        for (int i = 0; i < name.length(); i++) {
+            if (index(name.charAt(i)) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int index(char c) {
+        if (c >= 'a' && c <= 'z') {
+            return c - 'a';
+        }
+        if (c >= 'A' && c <= 'Z') {
+            return c - 'A';
+        }
+        if (c >= '0' && c <= '9') {
+            return 26 + (c - '0');
+        }
+        return c == '_' ? 36 : -1;
+    }
+
+    private static final class Node<V> {
+        Node<V>[] children;
+        int childCount;
+        V value;
+    }
+}
@@ -0,0 +1,96 @@
+package me.lubomirstankov.gotcraftproxychat.common.concurrent;
+
+import me.lubomirstankov.gotcraftproxychat.common.config.ConfigManager;
+import me.lubomirstankov.gotcraftproxychat.common.metrics.Metrics;
+import me.lubomirstankov.gotcraftproxychat.common.model.Lane;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LaneExecutorTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void fullNormalLaneDropsTheNewestAndCountsIt() throws InterruptedException {
+        LaneExecutor executor = executor("threads: 1\n  queue-capacity: 1");
+        long dropped = Metrics.counter(LaneExecutor.metricName(Lane.NORMAL, "dropped")).sum();
+        CountDownLatch release = block(executor, Lane.NORMAL);
+        List<String> ran = Collections.synchronizedList(new ArrayList<>());
+
+        assertTrue(executor.execute(Lane.NORMAL, "lobby", () -> ran.add("queued")));
+        assertFalse(executor.execute(Lane.NORMAL, "lobby", () -> ran.add("newest")));
+        assertEquals(dropped + 1, Metrics.counter(LaneExecutor.metricName(Lane.NORMAL, "dropped")).sum());
+
+        release.countDown();
+        executor.shutdown(5, TimeUnit.SECONDS);
+        assertEquals(List.of("queued"), ran);
+    }
+
+    @Test
+    void fullBulkLaneDropsTheOldestAndCountsIt() throws InterruptedException {
+        LaneExecutor executor = executor("lanes:\n    bulk:\n      queue-capacity: 1");
+        long dropped = Metrics.counter(LaneExecutor.metricName(Lane.BULK, "dropped")).sum();
+        CountDownLatch release = block(executor, Lane.BULK);
+        List<String> ran = Collections.synchronizedList(new ArrayList<>());
+
+        assertTrue(executor.execute(Lane.BULK, "lobby", () -> ran.add("oldest")));
+        assertFalse(executor.execute(Lane.BULK, "lobby", () -> ran.add("newest")));
+        assertEquals(dropped + 1, Metrics.counter(LaneExecutor.metricName(Lane.BULK, "dropped")).sum());
+
+        release.countDown();
+        executor.shutdown(5, TimeUnit.SECONDS);
+        assertEquals(List.of("newest"), ran);
+    }
+
+    @Test
+    void blockedLaneDoesNotDelayPriority() throws InterruptedException {
+        LaneExecutor executor = executor("threads: 1\n  queue-capacity: 1");
+        CountDownLatch release = block(executor, Lane.NORMAL);
+        CountDownLatch ran = new CountDownLatch(1);
+
+        assertTrue(executor.execute(Lane.PRIORITY, "lobby", ran::countDown));
+        assertTrue(ran.await(5, TimeUnit.SECONDS));
+
+        release.countDown();
+        executor.shutdown(5, TimeUnit.SECONDS);
+    }
+
+    // Occupies the lane's worker for "lobby" until the returned latch is released, so later tasks stay queued
+    private static CountDownLatch block(LaneExecutor executor, Lane lane) throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        executor.execute(lane, "lobby", () -> {
+            started.countDown();
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        return release;
+    }
+
+    // A fresh file per call, since load() only writes the defaults when the file does not exist yet
+    private LaneExecutor executor(String section) {
+        ConfigManager configManager = new ConfigManager(directory.resolve("config-" + UUID.randomUUID() + ".yml"));
+        String yaml = "forwarding:\n  " + section + "\n";
+        configManager.load(new ByteArrayInputStream(yaml.getBytes(StandardCharsets.UTF_8)));
+        return LaneExecutor.fromConfig("test", configManager, "forwarding");
+    }
+}
@@ -0,0 +1,124 @@
+package me.lubomirstankov.gotcraftproxychat.common.concurrent;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StripedExecutorTest {
+
+    @Test
+    void tasksWithTheSameKeyRunInOrder() {
+        StripedExecutor executor = new StripedExecutor("test", 4, 0, StripedExecutor.Overflow.DROP_NEWEST);
+        List<Integer> ran = Collections.synchronizedList(new ArrayList<>());
+
+        for (int i = 0; i < 1000; i++) {
+            int task = i;
+            assertTrue(executor.execute("lobby", () -> ran.add(task)));
+        }
+        executor.shutdown(5, TimeUnit.SECONDS);
+
+        assertEquals(1000, ran.size());
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(i, ran.get(i));
+        }
+    }
+
+    @Test
+    void tasksWithDifferentKeysRunConcurrently() throws InterruptedException {
+        StripedExecutor executor = new StripedExecutor("test", 2, 0, StripedExecutor.Overflow.DROP_NEWEST);
+        CountDownLatch bothRunning = new CountDownLatch(2);
+        CountDownLatch done = new CountDownLatch(2);
+        AtomicBoolean overlapped = new AtomicBoolean(true);
+
+        // Integer keys hash to themselves, so 0 and 1 land on different stripes
+        for (int key = 0; key < 2; key++) {
+            executor.execute(key, () -> {
+                bothRunning.countDown();
+                try {
+                    if (!bothRunning.await(5, TimeUnit.SECONDS)) {
+                        overlapped.set(false);
+                    }
+                } catch (InterruptedException e) {
+                    overlapped.set(false);
+                }
+                done.countDown();
+            });
+        }
+
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        assertTrue(overlapped.get());
+        executor.shutdown(1, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void fullStripeDropsTheNewestTask() throws InterruptedException {
+        StripedExecutor executor = new StripedExecutor("test", 1, 1, StripedExecutor.Overflow.DROP_NEWEST);
+        CountDownLatch release = block(executor);
+        List<String> ran = Collections.synchronizedList(new ArrayList<>());
+
+        assertTrue(executor.execute("lobby", () -> ran.add("queued")));
+        assertFalse(executor.execute("lobby", () -> ran.add("newest")));
+        assertEquals(1, executor.getQueuedTasks());
+
+        release.countDown();
+        executor.shutdown(5, TimeUnit.SECONDS);
+        assertEquals(List.of("queued"), ran);
+    }
+
+    @Test
+    void fullStripeDropsTheOldestTask() throws InterruptedException {
+        StripedExecutor executor = new StripedExecutor("test", 1, 1, StripedExecutor.Overflow.DROP_OLDEST);
+        CountDownLatch release = block(executor);
+        List<String> ran = Collections.synchronizedList(new ArrayList<>());
+
+        assertTrue(executor.execute("lobby", () -> ran.add("oldest")));
+        // Still reported as a drop, although the new task took the freed slot
+        assertFalse(executor.execute("lobby", () -> ran.add("newest")));
+        assertEquals(1, executor.getQueuedTasks());
+
+        release.countDown();
+        executor.shutdown(5, TimeUnit.SECONDS);
+        assertEquals(List.of("newest"), ran);
+    }
+
+    @Test
+    void rejectsTasksAfterShutdown() {
+        StripedExecutor executor = new StripedExecutor("test", 1, 1, StripedExecutor.Overflow.DROP_OLDEST);
+        executor.shutdown(1, TimeUnit.SECONDS);
+
+        assertFalse(executor.execute("lobby", () -> { }));
+    }
+
+    @Test
+    void parsesOverflowPolicies() {
+        assertEquals(StripedExecutor.Overflow.DROP_OLDEST, StripedExecutor.Overflow.parse(" Drop-Oldest "));
+        assertEquals(StripedExecutor.Overflow.DROP_NEWEST, StripedExecutor.Overflow.parse("drop-newest"));
+        assertThrows(IllegalArgumentException.class, () -> StripedExecutor.Overflow.parse("block"));
+    }
+
+    // Occupies the only worker until the returned latch is released, so later tasks stay queued
+    private static CountDownLatch block(StripedExecutor executor) throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        executor.execute("lobby", () -> {
+            started.countDown();
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        return release;
+    }
+}
@@ -0,0 +1,73 @@
+package me.lubomirstankov.gotcraftproxychat.common.config;
+
+import me.lubomirstankov.gotcraftproxychat.common.protocol.FrameType;
+import me.lubomirstankov.gotcraftproxychat.common.protocol.ProtocolIO;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ConfigSnapshotTest {
+
+    @Test
+    void roundTripKeepsOtherPrefixes() {
+        ConfigSnapshot snapshot = new ConfigSnapshot(7L, 3L, "lobby", "<gray>[Lobby]",
+                List.of("<red>[Survival]", "<gold>[Creative]"));
+
+        ConfigSnapshot read = ConfigSnapshot.deserialize(snapshot.serialize());
+
+        assertEquals(7L, read.getEpoch());
+        assertEquals(3L, read.getVersion());
+        assertEquals("lobby", read.getServerName());
+        assertEquals("<gray>[Lobby]", read.getServerPrefix());
+        assertEquals(List.of("<red>[Survival]", "<gold>[Creative]"), read.getOtherPrefixes());
+    }
+
+    @Test
+    void frameWithoutOtherPrefixesReadsAsEmpty() throws IOException {
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        DataOutputStream dos = new DataOutputStream(bos);
+        dos.writeByte(FrameType.CONFIG_SNAPSHOT);
+        dos.writeLong(7L);
+        dos.writeLong(3L);
+        ProtocolIO.writeString(dos, "lobby");
+        dos.writeBoolean(false);
+
+        ConfigSnapshot read = ConfigSnapshot.deserialize(bos.toByteArray());
+
+        assertNull(read.getServerPrefix());
+        assertTrue(read.getOtherPrefixes().isEmpty());
+    }
+
+    @Test
+    void rejectsPrefixCountBeyondInput() throws IOException {
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        DataOutputStream dos = new DataOutputStream(bos);
+        dos.writeByte(FrameType.CONFIG_SNAPSHOT);
+        dos.writeLong(7L);
+        dos.writeLong(3L);
+        ProtocolIO.writeString(dos, "lobby");
+        dos.writeBoolean(false);
+        ProtocolIO.writeVarInt(dos, Integer.MAX_VALUE);
+
+        assertThrows(RuntimeException.class, () -> ConfigSnapshot.deserialize(bos.toByteArray()));
+    }
+
+    @Test
+    void newerWithinEpochOrFromAnotherEpoch() {
+        ConfigSnapshot current = new ConfigSnapshot(7L, 3L, "lobby", null, List.of());
+
+        assertTrue(new ConfigSnapshot(7L, 4L, "lobby", null, List.of()).isNewerThan(current));
+        assertFalse(new ConfigSnapshot(7L, 3L, "lobby", null, List.of()).isNewerThan(current));
+        assertTrue(new ConfigSnapshot(8L, 1L, "lobby", null, List.of()).isNewerThan(current));
+        assertTrue(current.isNewerThan(null));
+    }
+}
@@ -0,0 +1,167 @@
+package me.lubomirstankov.gotcraftproxychat.common.directory;
+
+import me.lubomirstankov.gotcraftproxychat.common.protocol.FrameType;
+import me.lubomirstankov.gotcraftproxychat.common.protocol.ProtocolIO;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RosterMirrorTest {
+
+    private static final UUID STEVE = UUID.fromString("8667ba71-b85a-4004-af54-457a9734eed7");
+    private static final UUID ALEX = UUID.fromString("ec561538-f3fd-461d-aff5-086b22154bce");
+    private static final UUID NOTCH = UUID.fromString("069a79f4-44e9-4726-a5be-fca90e38aaf5");
+
+    @Test
+    void snapshotThenConsecutiveDeltas() throws IOException {
+        NetworkRoster roster = new NetworkRoster();
+        roster.update(STEVE, "Steve", "lobby");
+        roster.drainDelta();
+        RosterMirror mirror = new RosterMirror();
+
+        assertFalse(mirror.isSynced());
+        assertFalse(mirror.accept(roster.snapshot()));
+        assertTrue(mirror.isSynced());
+        assertEquals("lobby", mirror.getDirectory().find("steve").getServer());
+
+        roster.update(ALEX, "Alex", "survival");
+        assertFalse(mirror.accept(roster.drainDelta()));
+        roster.update(STEVE, "Steve", "survival");
+        roster.remove(ALEX);
+        assertFalse(mirror.accept(roster.drainDelta()));
+
+        assertEquals("survival", mirror.getDirectory().find("Steve").getServer());
+        assertNull(mirror.getDirectory().find("alex"));
+        assertEquals(1, mirror.getDirectory().size());
+    }
+
+    @Test
+    void gapRequestsOneResyncUntilTheNextSnapshot() throws IOException {
+        NetworkRoster roster = new NetworkRoster();
+        RosterMirror mirror = new RosterMirror();
+        mirror.accept(roster.snapshot());
+
+        roster.update(STEVE, "Steve", "lobby");
+        roster.drainDelta(); // Lost on the way
+        roster.update(ALEX, "Alex", "lobby");
+
+        assertTrue(mirror.accept(roster.drainDelta()));
+        roster.update(NOTCH, "Notch", "lobby");
+        // Asked already; the next request waits for the retry interval
+        assertFalse(mirror.accept(roster.drainDelta()));
+        assertNull(mirror.getDirectory().find("alex"));
+
+        assertFalse(mirror.accept(roster.snapshot()));
+        assertEquals(3, mirror.getDirectory().size());
+    }
+
+    @Test
+    void staleDeltaIsIgnored() throws IOException {
+        NetworkRoster roster = new NetworkRoster();
+        roster.update(STEVE, "Steve", "lobby");
+        byte[] delta = roster.drainDelta();
+        RosterMirror mirror = new RosterMirror();
+        mirror.accept(roster.snapshot());
+
+        // Already part of the snapshot
+        assertFalse(mirror.accept(delta));
+        assertEquals(1, mirror.getDirectory().size());
+    }
+
+    @Test
+    void olderSnapshotIsIgnored() throws IOException {
+        NetworkRoster roster = new NetworkRoster();
+        roster.update(STEVE, "Steve", "lobby");
+        roster.drainDelta();
+        byte[] older = roster.snapshot();
+        roster.update(ALEX, "Alex", "lobby");
+        roster.drainDelta();
+        RosterMirror mirror = new RosterMirror();
+        mirror.accept(roster.snapshot());
+        PlayerDirectory<String> directory = mirror.getDirectory();
+
+        assertFalse(mirror.accept(older));
+        assertSame(directory, mirror.getDirectory());
+        assertEquals(2, mirror.getDirectory().size());
+        assertFalse(mirror.accept(snapshot(epochOf(older) - 1, 9L)));
+        assertSame(directory, mirror.getDirectory());
+    }
+
+    @Test
+    void newEpochReplacesTheRoster() throws IOException {
+        NetworkRoster roster = new NetworkRoster();
+        roster.update(STEVE, "Steve", "lobby");
+        roster.drainDelta();
+        RosterMirror mirror = new RosterMirror();
+        mirror.accept(roster.snapshot());
+
+        // A restarted proxy counts from zero again
+        byte[] restarted = snapshot(epochOf(roster.snapshot()) + 1, 0L);
+        assertFalse(mirror.accept(restarted));
+        assertEquals(0, mirror.getDirectory().size());
+
+        // Deltas from the previous proxy no longer apply
+        roster.update(ALEX, "Alex", "lobby");
+        assertTrue(mirror.accept(roster.drainDelta()));
+        assertEquals(0, mirror.getDirectory().size());
+    }
+
+    @Test
+    void joinAndLeaveWithinOneBatchIsCoalesced() throws IOException {
+        NetworkRoster roster = new NetworkRoster();
+        roster.update(STEVE, "Steve", "lobby");
+        roster.remove(STEVE);
+
+        assertNull(roster.drainDelta());
+        assertEquals(0, roster.size());
+
+        roster.update(ALEX, "Alex", "lobby");
+        roster.drainDelta();
+        // Only the last change of a batch counts, and an unchanged member is not resent
+        roster.update(ALEX, "Alex", "survival");
+        roster.update(ALEX, "Alex", "lobby");
+        assertNull(roster.drainDelta());
+    }
+
+    @Test
+    void snapshotIsCachedUntilTheNextVersion() {
+        NetworkRoster roster = new NetworkRoster();
+        roster.update(STEVE, "Steve", "lobby");
+        roster.drainDelta();
+        byte[] snapshot = roster.snapshot();
+
+        roster.update(ALEX, "Alex", "lobby");
+        assertSame(snapshot, roster.snapshot());
+        roster.drainDelta();
+        assertNotSame(snapshot, roster.snapshot());
+    }
+
+    private static long epochOf(byte[] frame) throws IOException {
+        DataInputStream dis = new DataInputStream(new ByteArrayInputStream(frame));
+        dis.readByte();
+        return dis.readLong();
+    }
+
+    private static byte[] snapshot(long epoch, long version) throws IOException {
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        DataOutputStream dos = new DataOutputStream(bos);
+        dos.writeByte(FrameType.ROSTER_SNAPSHOT);
+        dos.writeLong(epoch);
+        dos.writeLong(version);
+        ProtocolIO.writeVarInt(dos, 0);
+        ProtocolIO.writeVarInt(dos, 0);
+        return bos.toByteArray();
+    }
+}
@@ -0,0 +1,155 @@
+package me.lubomirstankov.gotcraftproxychat.common.filter;
+
+import me.lubomirstankov.gotcraftproxychat.common.config.ConfigManager;
+import me.lubomirstankov.gotcraftproxychat.common.model.ChatPacket;
+import me.lubomirstankov.gotcraftproxychat.common.model.ChatPacketView;
+import me.lubomirstankov.gotcraftproxychat.common.model.ChatPayload;
+import me.lubomirstankov.gotcraftproxychat.common.text.ComponentText;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FloodFilterTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void nearIdenticalLinesHaveCloseFingerprints() {
+        long original = FloodFilter.fingerprint("join my server at play.example.net today");
+        long variant = FloodFilter.fingerprint("JOIN my server at play.example.net today!!!");
+        long stretched = FloodFilter.fingerprint("join my serverrrrr at play.example.net today");
+        long unrelated = FloodFilter.fingerprint("does anyone have spare iron to trade");
+
+        assertEquals(original, variant);
+        assertTrue(Long.bitCount(original ^ stretched) <= 6);
+        assertTrue(Long.bitCount(original ^ unrelated) > 6);
+    }
+
+    @Test
+    void firstRepeatOfAPlayerPasses() {
+        FloodFilter filter = new FloodFilter();
+        FloodFilter.Settings settings = settings("mode: drop");
+        UUID player = UUID.randomUUID();
+
+        assertForwarded(filter, settings, player, "see you later");
+        assertForwarded(filter, settings, player, "see you later");
+        assertDropped(filter, settings, player, "see you later");
+        assertDropped(filter, settings, player, "see you later!");
+    }
+
+    @Test
+    void playerThresholdIsConfigurable() {
+        FloodFilter filter = new FloodFilter();
+        FloodFilter.Settings settings = settings("mode: drop\n  player-threshold: 2");
+        UUID player = UUID.randomUUID();
+
+        assertForwarded(filter, settings, player, "see you later");
+        assertDropped(filter, settings, player, "see you later");
+    }
+
+    @Test
+    void shortLinesFromManyPlayersPass() {
+        FloodFilter filter = new FloodFilter();
+        FloodFilter.Settings settings = settings("mode: drop");
+
+        for (int i = 0; i < 20; i++) {
+            assertForwarded(filter, settings, UUID.randomUUID(), "gg");
+            assertForwarded(filter, settings, UUID.randomUUID(), "lol");
+        }
+    }
+
+    @Test
+    void longLinesFromManyPlayersAreSuppressedNetworkWide() {
+        FloodFilter filter = new FloodFilter();
+        FloodFilter.Settings settings = settings("mode: drop");
+        String spam = "join my server at play.example.net today";
+
+        assertForwarded(filter, settings, UUID.randomUUID(), spam);
+        assertForwarded(filter, settings, UUID.randomUUID(), spam);
+        assertForwarded(filter, settings, UUID.randomUUID(), spam);
+        assertDropped(filter, settings, UUID.randomUUID(), spam);
+    }
+
+    @Test
+    void collapseForwardsEveryNthRepeatWithACounter() {
+        FloodFilter filter = new FloodFilter();
+        FloodFilter.Settings settings = settings("mode: collapse\n  collapse-every: 5");
+        UUID player = UUID.randomUUID();
+
+        assertForwarded(filter, settings, player, "see you later");
+        assertForwarded(filter, settings, player, "see you later");
+        assertDropped(filter, settings, player, "see you later");
+        assertDropped(filter, settings, player, "see you later");
+
+        byte[] collapsed = filter.filter(packet(player, "see you later"), view(player, "see you later"), settings);
+        assertNotNull(collapsed);
+        assertEquals("see you later (x5)", ComponentText.plainText(new ChatPacketView(collapsed).getJson()));
+    }
+
+    @Test
+    void forgetClearsAPlayersWindow() {
+        FloodFilter filter = new FloodFilter();
+        FloodFilter.Settings settings = settings("mode: drop\n  player-threshold: 2");
+        UUID player = UUID.randomUUID();
+
+        assertForwarded(filter, settings, player, "see you later");
+        filter.forget(player);
+        assertForwarded(filter, settings, player, "see you later");
+    }
+
+    @Test
+    void disabledFilterForwardsEverything() {
+        FloodFilter filter = new FloodFilter();
+        FloodFilter.Settings settings = settings("enabled: false");
+        UUID player = UUID.randomUUID();
+
+        for (int i = 0; i < 10; i++) {
+            assertForwarded(filter, settings, player, "see you later");
+        }
+    }
+
+    @Test
+    void rejectsOutOfRangeSettings() {
+        assertThrows(IllegalArgumentException.class, () -> settings("player-threshold: 1"));
+        assertThrows(IllegalArgumentException.class, () -> settings("mode: mute"));
+    }
+
+    private static void assertForwarded(FloodFilter filter, FloodFilter.Settings settings, UUID player, String text) {
+        byte[] data = packet(player, text);
+        assertSame(data, filter.filter(data, new ChatPacketView(data), settings), text);
+    }
+
+    private static void assertDropped(FloodFilter filter, FloodFilter.Settings settings, UUID player, String text) {
+        byte[] data = packet(player, text);
+        assertNull(filter.filter(data, new ChatPacketView(data), settings), text);
+    }
+
+    private static ChatPacketView view(UUID player, String text) {
+        return new ChatPacketView(packet(player, text));
+    }
+
+    private static byte[] packet(UUID player, String text) {
+        String json = "{\"text\":\"" + text + "\"}";
+        byte[] payload = new ChatPayload(0, player.toString(), json).encode(ChatPacket.VERSION);
+        return new ChatPacket("lobby", player, "Player", "", payload).serialize();
+    }
+
+    // A fresh file per call, since load() only writes the defaults when the file does not exist yet
+    private FloodFilter.Settings settings(String section) {
+        ConfigManager configManager = new ConfigManager(directory.resolve("config-" + UUID.randomUUID() + ".yml"));
+        configManager.load(new ByteArrayInputStream(("flood:\n  " + section + "\n").getBytes(StandardCharsets.UTF_8)));
+        return FloodFilter.Settings.fromConfig(configManager);
+    }
+}
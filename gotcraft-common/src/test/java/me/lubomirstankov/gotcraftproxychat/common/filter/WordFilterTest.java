@@ -0,0 +1,147 @@
+package me.lubomirstankov.gotcraftproxychat.common.filter;
+
+import me.lubomirstankov.gotcraftproxychat.common.config.ConfigManager;
+import me.lubomirstankov.gotcraftproxychat.common.model.ChatPacket;
+import me.lubomirstankov.gotcraftproxychat.common.model.ChatPacketView;
+import me.lubomirstankov.gotcraftproxychat.common.model.ChatPayload;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class WordFilterTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void masksTermsCaseInsensitively() {
+        WordFilter filter = filter("terms: [badword]");
+
+        assertEquals("what a ******* that was", filter.filter("what a BadWord that was"));
+        assertEquals("nothing to see", filter.filter("nothing to see"));
+    }
+
+    @Test
+    void followsFailureLinksAfterAPartialMatch() {
+        WordFilter filter = filter("whole-words: false\n  terms: [abcx, bcd]");
+
+        // "abc" leads towards "abcx"; on "d" the scan must fall back to "bc" and continue to "bcd"
+        assertEquals("a***", filter.filter("abcd"));
+        assertEquals("****", filter.filter("abcx"));
+    }
+
+    @Test
+    void reportsEveryTermOnTheOutputChain() {
+        WordFilter filter = filter("whole-words: false\n  terms: [he, she, hers]");
+
+        assertEquals("u*****", filter.filter("ushers"));
+    }
+
+    @Test
+    void blockTermOnTheOutputChainBlocksTheLine() {
+        WordFilter filter = filter("whole-words: false\n  terms: [she]\n  block-terms: [he]");
+
+        assertNull(filter.filter("she"));
+    }
+
+    @Test
+    void wholeWordsRespectsWordEdges() {
+        WordFilter filter = filter("terms: [ass]\n  block-terms: [\"discord.gg/\"]");
+
+        assertEquals("first class", filter.filter("first class"));
+        assertEquals("what an ***!", filter.filter("what an ass!"));
+        assertEquals("***", filter.filter("ass"));
+        // Only edges that are word characters need a boundary
+        assertNull(filter.filter("join discord.gg/abc"));
+    }
+
+    @Test
+    void partialWordsMatchWithoutWholeWords() {
+        WordFilter filter = filter("whole-words: false\n  terms: [ass]");
+
+        assertEquals("first cl***", filter.filter("first class"));
+    }
+
+    @Test
+    void masksLettersButKeepsSpacesOfMultiWordTerms() {
+        WordFilter filter = filter("terms: [\"bad word\"]");
+
+        assertEquals("a *** **** here", filter.filter("a bad word here"));
+    }
+
+    @Test
+    void findsTermsSplitAcrossSegments() {
+        WordFilter filter = filter("terms: [badword]");
+        byte[] data = packet("{\"text\":\"bad\",\"color\":\"red\",\"extra\":[\"word\"]}");
+
+        byte[] filtered = filter.filter(data, new ChatPacketView(data));
+        assertNotNull(filtered);
+        assertEquals("{\"text\":\"***\",\"color\":\"red\",\"extra\":[\"****\"]}", new ChatPacketView(filtered).getJson());
+    }
+
+    @Test
+    void unmatchedPacketIsForwardedAsIs() {
+        WordFilter filter = filter("terms: [badword]");
+        byte[] data = packet("{\"text\":\"hello\"}");
+
+        assertSame(data, filter.filter(data, new ChatPacketView(data)));
+    }
+
+    @Test
+    void blockModeDropsInsteadOfMasking() {
+        WordFilter filter = filter("mode: block\n  terms: [badword]");
+        byte[] data = packet("{\"text\":\"a badword\"}");
+
+        assertNull(filter.filter("a badword"));
+        assertNull(filter.filter(data, new ChatPacketView(data)));
+        assertEquals("fine", filter.filter("fine"));
+    }
+
+    @Test
+    void blockTermsDropInMaskMode() {
+        WordFilter filter = filter("terms: [badword]\n  block-terms: [worse]");
+
+        assertEquals("a *******", filter.filter("a badword"));
+        assertNull(filter.filter("even worse"));
+    }
+
+    @Test
+    void disabledFilterPassesEverything() {
+        WordFilter filter = filter("enabled: false\n  terms: [badword]");
+        String text = "a badword";
+
+        assertSame(text, filter.filter(text));
+    }
+
+    @Test
+    void rejectsUnknownMode() {
+        assertThrows(IllegalArgumentException.class, () -> filter("mode: censor"));
+    }
+
+    private static byte[] packet(String json) {
+        UUID player = UUID.randomUUID();
+        byte[] payload = new ChatPayload(0, player.toString(), json).encode(ChatPacket.VERSION);
+        return new ChatPacket("lobby", player, "Player", "", payload).serialize();
+    }
+
+    // A fresh file per call, since load() only writes the defaults when the file does not exist yet
+    private WordFilter filter(String section) {
+        ConfigManager configManager = new ConfigManager(directory.resolve("config-" + UUID.randomUUID() + ".yml"));
+        String yaml = "filter:\n  enabled: true\n  " + section + "\n";
+        if (section.startsWith("enabled:")) {
+            yaml = "filter:\n  " + section + "\n";
+        }
+        configManager.load(new ByteArrayInputStream(yaml.getBytes(StandardCharsets.UTF_8)));
+        return WordFilter.fromConfig(configManager);
+    }
+}
@@ -0,0 +1,75 @@
+package me.lubomirstankov.gotcraftproxychat.common.model;
+
+import me.lubomirstankov.gotcraftproxychat.common.protocol.Capabilities;
+import me.lubomirstankov.gotcraftproxychat.common.protocol.FrameType;
+import me.lubomirstankov.gotcraftproxychat.common.protocol.Fragmenter;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ChatPacketEncodingsTest {
+
+    private static final UUID PLAYER = UUID.fromString("069a79f4-44e9-4726-a5be-fca90e38aaf5");
+
+    @Test
+    void legacyReceiverGetsOneUnfragmentedFrame() {
+        byte[] data = largePacket().serialize();
+        ChatPacketEncodings encodings = new ChatPacketEncodings(data);
+
+        List<byte[]> frames = encodings.framesFor(Capabilities.legacy(2));
+
+        assertEquals(1, frames.size());
+        assertTrue(frames.get(0).length > Fragmenter.MAX_FRAME_SIZE);
+        assertNotEquals(FrameType.FRAGMENT, frames.get(0)[0]);
+        ChatPacketView view = new ChatPacketView(frames.get(0));
+        assertEquals(2, view.getVersion());
+        assertEquals(largePacket().getPayload().getJson(), view.getJson());
+    }
+
+    @Test
+    void fragmentingReceiverGetsFragments() {
+        byte[] data = largePacket().serialize();
+        ChatPacketEncodings encodings = new ChatPacketEncodings(data);
+
+        List<byte[]> frames = encodings.framesFor(Capabilities.local());
+
+        assertTrue(frames.size() > 1);
+        for (byte[] frame : frames) {
+            assertEquals(FrameType.FRAGMENT, frame[0]);
+        }
+    }
+
+    @Test
+    void sameVersionWithoutFragmentsReusesTheReceivedBytes() {
+        byte[] data = largePacket().serialize();
+        ChatPacketEncodings encodings = new ChatPacketEncodings(data);
+
+        List<byte[]> whole = encodings.framesFor(new Capabilities(1, ChatPacket.VERSION, Capabilities.FEATURE_ROSTER));
+        assertEquals(1, whole.size());
+        assertSame(data, whole.get(0));
+
+        // Both fragment modes are cached apart
+        assertTrue(encodings.framesFor(Capabilities.local()).size() > 1);
+        assertSame(whole, encodings.framesFor(new Capabilities(1, ChatPacket.VERSION, 0)));
+    }
+
+    @Test
+    void rejectsReceiverWithoutCommonVersion() {
+        ChatPacketEncodings encodings = new ChatPacketEncodings(largePacket().serialize());
+        assertThrows(IllegalArgumentException.class,
+                () -> encodings.framesFor(new Capabilities(ChatPacket.VERSION + 1, ChatPacket.VERSION + 2, 0)));
+    }
+
+    private static ChatPacket largePacket() {
+        String json = "{\"text\":\"" + "a".repeat(40_000) + "\"}";
+        byte[] payload = new ChatPayload(0, PLAYER.toString(), json).encode(ChatPacket.VERSION);
+        return new ChatPacket("Lobby", PLAYER, "Notch", "<gray>[Lobby]", payload);
+    }
+}
@@ -0,0 +1,48 @@
+package me.lubomirstankov.gotcraftproxychat.common.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ChatPacketViewTest {
+
+    private static final UUID PLAYER = UUID.fromString("069a79f4-44e9-4726-a5be-fca90e38aaf5");
+
+    @Test
+    void readsEveryVersion() {
+        for (int version = ChatPacket.MIN_VERSION; version <= ChatPacket.VERSION; version++) {
+            ChatPacketView view = new ChatPacketView(packet().serialize(version));
+
+            assertEquals(version, view.getVersion());
+            assertEquals("Lobby", view.getServerName());
+            assertEquals(PLAYER, view.getPlayerUuid());
+            assertEquals("Notch", view.getPlayerName());
+            assertEquals(version >= 2 ? "<gray>[Lobby]" : "", view.getServerPrefix());
+            assertEquals("{\"text\":\"hello\"}", view.getJson());
+            assertTrue(view.isFromServer(ChatPacketView.encodeServerName("lobby")));
+        }
+    }
+
+    @Test
+    void rejectsLengthThatOverflowsTheOffset() {
+        // v4 header followed by a server name length of Integer.MAX_VALUE
+        byte[] data = {ChatPacket.VERSION, 1, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x07, 'a'};
+        assertThrows(IllegalArgumentException.class, () -> new ChatPacketView(data));
+    }
+
+    @Test
+    void rejectsTruncatedPacket() {
+        byte[] data = packet().serialize();
+        assertThrows(IllegalArgumentException.class, () -> new ChatPacketView(Arrays.copyOf(data, data.length - 3)));
+    }
+
+    private static ChatPacket packet() {
+        byte[] payload = new ChatPayload(7, PLAYER.toString(), "{\"text\":\"hello\"}").encode(ChatPacket.VERSION);
+        return new ChatPacket("Lobby", PLAYER, "Notch", "<gray>[Lobby]", payload, Lane.NORMAL);
+    }
+}
@@ -0,0 +1,79 @@
+package me.lubomirstankov.gotcraftproxychat.common.protocol;
+
+import me.lubomirstankov.gotcraftproxychat.common.config.ConfigManager;
+import me.lubomirstankov.gotcraftproxychat.common.model.ChatPacket;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CapabilityRegistryTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void unknownServersGetTheLegacyVersionWithoutFeatures() {
+        CapabilityRegistry registry = registry("");
+
+        assertFalse(registry.isKnown("lobby"));
+        assertEquals(2, registry.versionFor("lobby"));
+        assertFalse(registry.get("lobby").supports(Capabilities.FEATURE_CONFIG_PUSH));
+        assertFalse(registry.get("lobby").supports(Capabilities.FEATURE_ROSTER));
+    }
+
+    @Test
+    void helloRecordsVersionAndFeatures() throws IOException {
+        CapabilityRegistry registry = registry("");
+
+        assertNull(registry.accept("Lobby", Capabilities.local().toFrame(FrameType.HELLO)));
+        assertTrue(registry.isKnown("lobby"));
+        assertEquals(ChatPacket.VERSION, registry.versionFor("LOBBY"));
+        assertTrue(registry.get("lobby").supports(Capabilities.FEATURE_PRIVATE_MESSAGES));
+    }
+
+    @Test
+    void changedHelloReturnsThePreviousCapabilities() throws IOException {
+        CapabilityRegistry registry = registry("");
+        Capabilities older = new Capabilities(1, 3, Capabilities.FEATURE_FRAGMENTS);
+
+        registry.accept("lobby", older.toFrame(FrameType.HELLO));
+        assertNull(registry.accept("lobby", older.toFrame(FrameType.HELLO)));
+        assertEquals(older, registry.accept("lobby", Capabilities.local().toFrame(FrameType.HELLO)));
+    }
+
+    @Test
+    void forgetFallsBackToLegacy() throws IOException {
+        CapabilityRegistry registry = registry("legacy-version: 1");
+
+        registry.accept("lobby", Capabilities.local().toFrame(FrameType.HELLO));
+        registry.forget("LOBBY");
+
+        assertFalse(registry.isKnown("lobby"));
+        assertEquals(1, registry.versionFor("lobby"));
+    }
+
+    @Test
+    void rejectsUnknownLegacyVersion() {
+        assertThrows(IllegalArgumentException.class, () -> registry("legacy-version: 0"));
+        assertThrows(IllegalArgumentException.class, () -> registry("legacy-version: " + (ChatPacket.VERSION + 1)));
+    }
+
+    // A fresh file per call, since load() only writes the defaults when the file does not exist yet
+    private CapabilityRegistry registry(String section) {
+        ConfigManager configManager = new ConfigManager(directory.resolve("config-" + UUID.randomUUID() + ".yml"));
+        String yaml = section.isEmpty() ? "handshake: {}\n" : "handshake:\n  " + section + "\n";
+        configManager.load(new ByteArrayInputStream(yaml.getBytes(StandardCharsets.UTF_8)));
+        return CapabilityRegistry.fromConfig(configManager);
+    }
+}
@@ -0,0 +1,170 @@
+package me.lubomirstankov.gotcraftproxychat.common.protocol;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ReassemblerTest {
+
+    private static final int MAX_BUFFERED = 1024 * 1024;
+
+    @Test
+    void smallPayloadIsNotFragmented() throws IOException {
+        byte[] payload = payload(1_000);
+        List<byte[]> frames = Fragmenter.split(payload);
+
+        assertEquals(1, frames.size());
+        assertSame(payload, frames.get(0));
+        assertSame(payload, new Reassembler(MAX_BUFFERED, 10_000L).accept("lobby", payload));
+    }
+
+    @Test
+    void splitAndJoinRoundTrip() throws IOException {
+        byte[] payload = payload(100_000);
+        List<byte[]> frames = Fragmenter.split(payload);
+        assertTrue(frames.size() > 1);
+        for (byte[] frame : frames) {
+            assertTrue(frame.length <= Fragmenter.MAX_FRAME_SIZE);
+            assertEquals(FrameType.FRAGMENT, frame[0]);
+        }
+
+        Reassembler reassembler = new Reassembler(MAX_BUFFERED, 10_000L);
+        byte[] joined = null;
+        for (int i = 0; i < frames.size(); i++) {
+            joined = reassembler.accept("lobby", frames.get(i));
+            if (i < frames.size() - 1) {
+                assertNull(joined);
+            }
+        }
+        assertArrayEquals(payload, joined);
+    }
+
+    @Test
+    void joinsFragmentsOutOfOrderAndIgnoresDuplicates() throws IOException {
+        byte[] payload = payload(75_000);
+        List<byte[]> frames = new ArrayList<>(Fragmenter.split(payload));
+        Collections.reverse(frames);
+
+        Reassembler reassembler = new Reassembler(MAX_BUFFERED, 10_000L);
+        assertNull(reassembler.accept("lobby", frames.get(0)));
+        assertNull(reassembler.accept("lobby", frames.get(0)));
+        byte[] joined = null;
+        for (int i = 1; i < frames.size(); i++) {
+            joined = reassembler.accept("lobby", frames.get(i));
+        }
+        assertArrayEquals(payload, joined);
+    }
+
+    @Test
+    void keepsSourcesApart() throws IOException {
+        byte[] first = payload(40_000);
+        byte[] second = payload(40_000);
+        List<byte[]> firstFrames = Fragmenter.split(first);
+        List<byte[]> secondFrames = Fragmenter.split(second);
+
+        Reassembler reassembler = new Reassembler(MAX_BUFFERED, 10_000L);
+        assertNull(reassembler.accept("lobby", firstFrames.get(0)));
+        assertNull(reassembler.accept("survival", secondFrames.get(0)));
+        assertArrayEquals(first, reassembler.accept("lobby", firstFrames.get(1)));
+        assertArrayEquals(second, reassembler.accept("survival", secondFrames.get(1)));
+    }
+
+    @Test
+    void rejectsEmptyFragment() {
+        Reassembler reassembler = new Reassembler(MAX_BUFFERED, 10_000L);
+        assertThrows(IOException.class, () -> reassembler.accept("lobby", fragment(1L, 0, 2, new byte[0])));
+    }
+
+    @Test
+    void rejectsFragmentCountBeyondBuffer() {
+        Reassembler reassembler = new Reassembler(MAX_BUFFERED, 10_000L);
+        int tooMany = MAX_BUFFERED / Fragmenter.MAX_FRAME_SIZE + 2;
+        assertThrows(IOException.class, () -> reassembler.accept("lobby", fragment(1L, 0, tooMany, new byte[1])));
+        assertThrows(IOException.class, () -> reassembler.accept("lobby", fragment(1L, 0, Integer.MAX_VALUE, new byte[1])));
+    }
+
+    @Test
+    void rejectsInvalidIndexAndCount() {
+        Reassembler reassembler = new Reassembler(MAX_BUFFERED, 10_000L);
+        assertThrows(IOException.class, () -> reassembler.accept("lobby", fragment(1L, 2, 2, new byte[8])));
+        assertThrows(IOException.class, () -> reassembler.accept("lobby", fragment(1L, -1, 2, new byte[8])));
+        assertThrows(IOException.class, () -> reassembler.accept("lobby", fragment(1L, 0, 1, new byte[8])));
+    }
+
+    @Test
+    void rejectsCountChangeWithinMessage() throws IOException {
+        Reassembler reassembler = new Reassembler(MAX_BUFFERED, 10_000L);
+        assertNull(reassembler.accept("lobby", fragment(1L, 0, 3, new byte[8])));
+        assertThrows(IOException.class, () -> reassembler.accept("lobby", fragment(1L, 1, 2, new byte[8])));
+    }
+
+    @Test
+    void rejectsTruncatedHeader() {
+        Reassembler reassembler = new Reassembler(MAX_BUFFERED, 10_000L);
+        assertThrows(IOException.class, () -> reassembler.accept("lobby", new byte[]{FrameType.FRAGMENT, 0, 0, 0}));
+    }
+
+    @Test
+    void readBytesRejectsLengthBeyondInput() throws IOException {
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        DataOutputStream dos = new DataOutputStream(bos);
+        ProtocolIO.writeVarInt(dos, Integer.MAX_VALUE);
+        dos.write(new byte[4]);
+
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(bos.toByteArray()));
+        assertThrows(IOException.class, () -> ProtocolIO.readBytes(in));
+    }
+
+    @Test
+    void readBytesRejectsNegativeLength() throws IOException {
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        ProtocolIO.writeVarInt(new DataOutputStream(bos), -1);
+
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(bos.toByteArray()));
+        assertThrows(IOException.class, () -> ProtocolIO.readBytes(in));
+    }
+
+    @Test
+    void stringRoundTrip() throws IOException {
+        String value = "héllo ".repeat(20_000);
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        ProtocolIO.writeString(new DataOutputStream(bos), value);
+
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(bos.toByteArray()));
+        assertEquals(value, ProtocolIO.readString(in));
+    }
+
+    // Starts with a byte that is not a frame type, like a serialized chat packet
+    private static byte[] payload(int size) {
+        byte[] payload = new byte[size];
+        new Random(size).nextBytes(payload);
+        payload[0] = 4;
+        return payload;
+    }
+
+    private static byte[] fragment(long messageId, int index, int count, byte[] chunk) throws IOException {
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        DataOutputStream dos = new DataOutputStream(bos);
+        dos.writeByte(FrameType.FRAGMENT);
+        dos.writeLong(messageId);
+        ProtocolIO.writeVarInt(dos, index);
+        ProtocolIO.writeVarInt(dos, count);
+        dos.write(chunk);
+        return bos.toByteArray();
+    }
+}
@@ -0,0 +1,125 @@
+package me.lubomirstankov.gotcraftproxychat.common.proxy;
+
+import me.lubomirstankov.gotcraftproxychat.common.config.ConfigManager;
+import me.lubomirstankov.gotcraftproxychat.common.config.NetworkConfig;
+import me.lubomirstankov.gotcraftproxychat.common.directory.PlayerDirectory;
+import me.lubomirstankov.gotcraftproxychat.common.model.ChatPacket;
+import me.lubomirstankov.gotcraftproxychat.common.model.ChatPacketView;
+import me.lubomirstankov.gotcraftproxychat.common.model.ChatPayload;
+import me.lubomirstankov.gotcraftproxychat.common.model.Lane;
+import me.lubomirstankov.gotcraftproxychat.common.protocol.CapabilityRegistry;
+import me.lubomirstankov.gotcraftproxychat.common.protocol.Fragmenter;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ProxyChatPipelineTest {
+
+    private static final UUID PLAYER = UUID.fromString("069a79f4-44e9-4726-a5be-fca90e38aaf5");
+    private static final String LINE = "Scheduled maintenance tonight, please log off before the restart. ".repeat(600);
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void fragmentedPriorityBroadcastBypassesTheFloodFilter() {
+        List<byte[]> received = forward(Lane.PRIORITY, 3);
+
+        assertEquals(3, received.size());
+        for (byte[] data : received) {
+            assertEquals(Lane.PRIORITY, new ChatPacketView(data).getLane());
+        }
+    }
+
+    @Test
+    void fragmentedNormalChatIsFloodFiltered() {
+        assertEquals(2, forward(Lane.NORMAL, 3).size());
+    }
+
+    // Sends the same oversized line from lobby several times and returns what survival received
+    private List<byte[]> forward(Lane lane, int times) {
+        ConfigManager configManager = new ConfigManager(directory.resolve("config-" + UUID.randomUUID() + ".yml"));
+        String yaml = "flood:\n  enabled: true\n  mode: drop\nhandshake:\n  legacy-version: 4\n";
+        configManager.load(new ByteArrayInputStream(yaml.getBytes(StandardCharsets.UTF_8)));
+        NetworkConfig config = NetworkConfig.fromConfig(configManager, 1L, 1L);
+
+        RecordingPlatform platform = new RecordingPlatform();
+        ProxyChatPipeline<String> pipeline = new ProxyChatPipeline<>(platform, configManager,
+                CapabilityRegistry.fromConfig(configManager), () -> config);
+
+        byte[] payload = new ChatPayload(0, PLAYER.toString(), "{\"text\":\"" + LINE + "\"}").encode(ChatPacket.VERSION);
+        for (int i = 0; i < times; i++) {
+            byte[] data = new ChatPacket("lobby", PLAYER, "Notch", "", payload, lane).serialize();
+            List<byte[]> frames = Fragmenter.split(data);
+            assertTrue(frames.size() > 1);
+            for (byte[] frame : frames) {
+                pipeline.receive("lobby", frame);
+            }
+        }
+        pipeline.shutdown();
+        return platform.sent;
+    }
+
+    private static final class RecordingPlatform implements ProxyPlatform<String> {
+        private final List<byte[]> sent = new CopyOnWriteArrayList<>();
+
+        @Override
+        public Collection<String> getServers() {
+            return List.of("lobby", "survival");
+        }
+
+        @Override
+        public String getServer(String serverName) {
+            return serverName;
+        }
+
+        @Override
+        public String getName(String server) {
+            return server;
+        }
+
+        @Override
+        public boolean send(String server, byte[] frame) {
+            if (server.equals("survival")) {
+                sent.add(frame);
+            }
+            return true;
+        }
+
+        @Override
+        public PlayerDirectory<String> getDirectory() {
+            return new PlayerDirectory<>();
+        }
+
+        @Override
+        public void resyncRoster(String serverName) {
+        }
+
+        @Override
+        public void pushConfig(String serverName) {
+        }
+
+        @Override
+        public void info(String message) {
+        }
+
+        @Override
+        public void warning(String message) {
+        }
+
+        @Override
+        public void error(String message) {
+            throw new AssertionError(message);
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package me.lubomirstankov.gotcraftproxychat.common.text;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ComponentTextTest {
+
+    @Test
+    void plainTextOfSimpleComponents() {
+        assertEquals("hello", ComponentText.plainText("{\"text\":\"hello\"}"));
+        assertEquals("hello", ComponentText.plainText("\"hello\""));
+        assertEquals("ab", ComponentText.plainText("[\"a\",{\"text\":\"b\"}]"));
+    }
+
+    @Test
+    void plainTextFollowsExtraAndWithInOrder() {
+        String json = "{\"text\":\"<\",\"extra\":[{\"text\":\"Steve\",\"color\":\"gold\"},\"> \","
+                + "{\"translate\":\"chat.type.text\",\"with\":[\"hi\",{\"text\":\" all\"}]}]}";
+        assertEquals("<Steve> hi all", ComponentText.plainText(json));
+    }
+
+    @Test
+    void plainTextSkipsHoverClickAndOtherKeys() {
+        String json = "{\"text\":\"click\",\"color\":\"blue\","
+                + "\"hoverEvent\":{\"action\":\"show_text\",\"contents\":{\"text\":\"secret\"}},"
+                + "\"clickEvent\":{\"action\":\"open_url\",\"value\":\"https://example.com\"},"
+                + "\"insertion\":\"hidden\",\"bold\":true,\"extra\":[{\"text\":\" me\",\"hover_event\":{\"value\":\"x\"}}]}";
+        assertEquals("click me", ComponentText.plainText(json));
+    }
+
+    @Test
+    void plainTextUnescapesStrings() {
+        assertEquals("say \"hi\"\n\\ é", ComponentText.plainText("{\"text\":\"say \\\"hi\\\"\\n\\\\ \\u00e9\"}"));
+    }
+
+    @Test
+    void malformedJsonHasNoText() {
+        assertEquals("", ComponentText.plainText("{\"text\":\"unterminated"));
+        assertEquals("", ComponentText.plainText("{\"text\" \"missing colon\"}"));
+        assertEquals("", ComponentText.plainText(""));
+    }
+
+    @Test
+    void replaceKeepsTheRestOfTheJson() {
+        String json = "{\"text\":\"bad\",\"color\":\"red\",\"extra\":[\"word\"]}";
+        List<ComponentText.Segment> segments = ComponentText.segments(json);
+        assertEquals(2, segments.size());
+
+        String replaced = ComponentText.replace(json, segments, List.of("***", "\"quoted\""));
+        assertEquals("{\"text\":\"***\",\"color\":\"red\",\"extra\":[\"\\\"quoted\\\"\"]}", replaced);
+        assertEquals("***\"quoted\"", ComponentText.plainText(replaced));
+    }
+
+    @Test
+    void appendSuffixAddsVisibleText() {
+        String json = ComponentText.appendSuffix("{\"text\":\"gg\"}", " (x5)");
+        assertEquals("gg (x5)", ComponentText.plainText(json));
+        assertTrue(json.contains("\"color\":\"gray\""));
+    }
+}
@@ -0,0 +1,108 @@
+package me.lubomirstankov.gotcraftproxychat.common.text;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class NameTrieTest {
+
+    @Test
+    void matchesWholeWordsOnly() {
+        NameTrie<String> trie = new NameTrie<>();
+        trie.put("Steve", "steve");
+
+        assertEquals(List.of("steve"), trie.find("hi steve"));
+        assertEquals(List.of("steve"), trie.find("@Steve, look"));
+        assertEquals(List.of("steve"), trie.find("(steve)"));
+        assertEquals(List.of(), trie.find("steven"));
+        assertEquals(List.of(), trie.find("xsteve"));
+        assertEquals(List.of(), trie.find("steve_1"));
+    }
+
+    @Test
+    void foldsCase() {
+        NameTrie<String> trie = new NameTrie<>();
+        trie.put("Notch", "notch");
+
+        assertEquals(List.of("notch"), trie.find("NOTCH"));
+        assertEquals(List.of("notch"), trie.find("nOtCh"));
+        assertEquals("notch", trie.remove("NoTcH"));
+        assertTrue(trie.isEmpty());
+    }
+
+    @Test
+    void namesThatPrefixOtherNames() {
+        NameTrie<String> trie = new NameTrie<>();
+        trie.put("steve", "steve");
+        trie.put("steven", "steven");
+
+        assertEquals(List.of("steve"), trie.find("steve"));
+        assertEquals(List.of("steven"), trie.find("steven"));
+        assertEquals(List.of("steven", "steve"), trie.find("steven and steve and steven"));
+        assertEquals(List.of(), trie.find("stev stevens"));
+    }
+
+    @Test
+    void removePrunesOnlyWhatNoOtherNameUses() {
+        NameTrie<String> trie = new NameTrie<>();
+        trie.put("steve", "steve");
+        trie.put("steven", "steven");
+
+        assertEquals("steven", trie.remove("steven"));
+        assertEquals(List.of("steve"), trie.find("steve steven"));
+
+        trie.put("steven", "steven");
+        assertEquals("steve", trie.remove("steve"));
+        assertEquals(List.of("steven"), trie.find("steve steven"));
+
+        assertEquals("steven", trie.remove("steven"));
+        assertTrue(trie.isEmpty());
+        assertEquals(List.of(), trie.find("steve steven"));
+
+        // A pruned path can be built again
+        trie.put("steve", "again");
+        assertEquals(List.of("again"), trie.find("steve"));
+    }
+
+    @Test
+    void removeOfMissingNames() {
+        NameTrie<String> trie = new NameTrie<>();
+        trie.put("steven", "steven");
+
+        assertNull(trie.remove("steve"));
+        assertNull(trie.remove("stevens"));
+        assertNull(trie.remove("alex"));
+        assertNull(trie.remove("not a name"));
+        assertEquals(1, trie.size());
+    }
+
+    @Test
+    void putReplacesAndRejectsInvalidNames() {
+        NameTrie<String> trie = new NameTrie<>();
+
+        assertTrue(trie.put("Steve", "first"));
+        assertTrue(trie.put("STEVE", "second"));
+        assertEquals(1, trie.size());
+        assertEquals(List.of("second"), trie.find("steve"));
+
+        assertFalse(trie.put("", "empty"));
+        assertFalse(trie.put("two words", "space"));
+        assertFalse(trie.put(null, "null"));
+        assertEquals(1, trie.size());
+    }
+
+    @Test
+    void reportsEachNameOnceInOrderOfFirstMention() {
+        NameTrie<String> trie = new NameTrie<>();
+        trie.put("alex", "alex");
+        trie.put("Steve_2", "steve");
+
+        assertEquals(List.of("steve", "alex"), trie.find("steve_2? alex! STEVE_2 alex"));
+        assertEquals(List.of(), trie.find(""));
+    }
+}
@@ -1,10 +1,20 @@
 package me.lubomirstankov.gotcraftproxychat.paper;
 
 import me.lubomirstankov.gotcraftproxychat.common.config.ConfigManager;
+import me.lubomirstankov.gotcraftproxychat.common.metrics.Metrics;
 import me.lubomirstankov.gotcraftproxychat.common.util.DIContainer;
+import me.lubomirstankov.gotcraftproxychat.paper.command.BroadcastCommand;
+import me.lubomirstankov.gotcraftproxychat.paper.command.MessageCommand;
 import me.lubomirstankov.gotcraftproxychat.paper.command.ReloadConfigCommand;
+import me.lubomirstankov.gotcraftproxychat.paper.command.ReplyCommand;
+import me.lubomirstankov.gotcraftproxychat.paper.command.StatsCommand;
+import me.lubomirstankov.gotcraftproxychat.paper.config.ServerSettings;
 import me.lubomirstankov.gotcraftproxychat.paper.listener.PlayerChatEventListener;
+import me.lubomirstankov.gotcraftproxychat.paper.service.DegradationController;
+import me.lubomirstankov.gotcraftproxychat.paper.service.HandshakeService;
+import me.lubomirstankov.gotcraftproxychat.paper.service.MentionService;
 import me.lubomirstankov.gotcraftproxychat.paper.service.PaperMessengerService;
+import me.lubomirstankov.gotcraftproxychat.paper.service.PrivateMessageService;
 import me.lubomirstankov.gotcraftproxychat.paper.util.PlaceholderSupport;
 import org.bukkit.plugin.java.JavaPlugin;
 
@@ -13,8 +23,14 @@ import java.nio.file.Path;
 public final class GotCraftPaper extends JavaPlugin {
 
     private ConfigManager configManager;
+    private ServerSettings serverSettings;
     private PaperMessengerService messengerService;
+    private PrivateMessageService privateMessageService;
+    private DegradationController degradationController;
+    private HandshakeService handshakeService;
+    private MentionService mentionService;
     private PlayerChatEventListener chatListener;
+    private volatile long warmUpMillis;
 
     @Override
     public void onEnable() {
@@ -24,26 +40,76 @@ public final class GotCraftPaper extends JavaPlugin {
 
         DIContainer.register(ConfigManager.class, configManager);
 
+        serverSettings = new ServerSettings(this);
+        DIContainer.register(ServerSettings.class, serverSettings);
+
+        handshakeService = new HandshakeService(this);
+        getServer().getPluginManager().registerEvents(handshakeService, this);
+        DIContainer.register(HandshakeService.class, handshakeService);
+
+        degradationController = new DegradationController(this);
+        degradationController.initialize();
+        DIContainer.register(DegradationController.class, degradationController);
+
+        mentionService = new MentionService(this);
+        mentionService.initialize();
+        DIContainer.register(MentionService.class, mentionService);
+
         messengerService = new PaperMessengerService(this);
         messengerService.initialize();
         DIContainer.register(PaperMessengerService.class, messengerService);
 
+        privateMessageService = new PrivateMessageService(this);
+        getServer().getPluginManager().registerEvents(privateMessageService, this);
+        DIContainer.register(PrivateMessageService.class, privateMessageService);
+
         chatListener = new PlayerChatEventListener(this);
         getServer().getPluginManager().registerEvents(chatListener, this);
 
         getCommand("gcreload").setExecutor(new ReloadConfigCommand(this));
+        getCommand("gcstats").setExecutor(new StatsCommand());
+
+        MessageCommand messageCommand = new MessageCommand(this);
+        getCommand("gmsg").setExecutor(messageCommand);
+        getCommand("gmsg").setTabCompleter(messageCommand);
+        getCommand("greply").setExecutor(new ReplyCommand(this));
+        getCommand("gcbroadcast").setExecutor(new BroadcastCommand(this));
 
         getLogger().info("GotCraftProxyChat-Paper has been enabled!");
-        getLogger().info("Server: " + configManager.getString("chat.server-name", getServer().getName()));
+        getLogger().info("Server: " + serverSettings.getServerName());
 
         if (PlaceholderSupport.isAvailable()) {
             getLogger().info("PlaceholderAPI found - placeholders in server-prefix will be resolved");
         }
+
+        // Off the main thread, so startup is not delayed and the first real message finds everything loaded
+        Metrics.gauge("warmup.millis", () -> warmUpMillis);
+        getServer().getScheduler().runTaskAsynchronously(this, this::warmUp);
+    }
+
+    private void warmUp() {
+        long start = System.nanoTime();
+        try {
+            long[] stages = messengerService.warmUp();
+            long total = (System.nanoTime() - start) / 1_000_000L;
+            warmUpMillis = total;
+            getLogger().info("Chat pipeline warmed up in " + total + " ms (decode " + stages[0] + " ms, render "
+                    + stages[1] + " ms, encode " + stages[2] + " ms)");
+        } catch (Exception e) {
+            getLogger().warning("Failed to warm up chat pipeline: " + e.getMessage());
+        }
     }
 
     @Override
     public void onDisable() {
+        if (messengerService != null) {
+            messengerService.shutdown();
+        }
+        if (degradationController != null) {
+            degradationController.shutdown();
+        }
         DIContainer.clear();
+        Metrics.clear();
         getLogger().info("GotCraftProxyChat-Paper has been disabled!");
     }
 
@@ -51,8 +117,28 @@ public final class GotCraftPaper extends JavaPlugin {
         return configManager;
     }
 
+    public ServerSettings getServerSettings() {
+        return serverSettings;
+    }
+
     public PaperMessengerService getMessengerService() {
         return messengerService;
     }
+
+    public PrivateMessageService getPrivateMessageService() {
+        return privateMessageService;
+    }
+
+    public DegradationController getDegradationController() {
+        return degradationController;
+    }
+
+    public HandshakeService getHandshakeService() {
+        return handshakeService;
+    }
+
+    public MentionService getMentionService() {
+        return mentionService;
+    }
 }
 
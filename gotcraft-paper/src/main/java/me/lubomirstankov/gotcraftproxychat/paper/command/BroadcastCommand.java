@@ -0,0 +1,57 @@
+package me.lubomirstankov.gotcraftproxychat.paper.command;
+
+import me.lubomirstankov.gotcraftproxychat.common.model.Lane;
+import me.lubomirstankov.gotcraftproxychat.paper.GotCraftPaper;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.format.NamedTextColor;
+import net.kyori.adventure.text.minimessage.MiniMessage;
+import net.kyori.adventure.text.minimessage.tag.resolver.Placeholder;
+import org.bukkit.command.Command;
+import org.bukkit.command.CommandExecutor;
+import org.bukkit.command.CommandSender;
+import org.bukkit.entity.Player;
+
+/**
+ * Command to broadcast a staff message to every server on the priority lane
+ */
+public class BroadcastCommand implements CommandExecutor {
+
+    private static final String DEFAULT_FORMAT = "<red>[Broadcast]</red> <message>";
+
+    private final GotCraftPaper plugin;
+    private final MiniMessage miniMessage = MiniMessage.miniMessage();
+
+    public BroadcastCommand(GotCraftPaper plugin) {
+        this.plugin = plugin;
+    }
+
+    @Override
+    public boolean onCommand(CommandSender sender, Command command, String label, String[] args) {
+        if (!sender.hasPermission("gotcraftproxychat.broadcast")) {
+            sender.sendMessage(Component.text("You don't have permission to use this command!")
+                    .color(NamedTextColor.RED));
+            return true;
+        }
+
+        if (args.length == 0) {
+            sender.sendMessage(Component.text("Usage: /" + label + " <message>").color(NamedTextColor.RED));
+            return true;
+        }
+
+        // Staff may use MiniMessage tags in the message itself
+        String format = plugin.getConfigManager().getString("announcements.format", DEFAULT_FORMAT);
+        Component message = miniMessage.deserialize(format,
+                Placeholder.unparsed("sender", sender.getName()),
+                Placeholder.parsed("message", String.join(" ", args)));
+
+        Player player = sender instanceof Player ? (Player) sender : null;
+        boolean sent = plugin.getMessengerService().sendAnnouncement(message,
+                player != null ? player.getUniqueId() : null, sender.getName(), Lane.PRIORITY);
+        if (!sent) {
+            // E.g. from the console of an empty server: the proxy is only reachable through a player's connection
+            sender.sendMessage(Component.text("Nobody is online on this server to carry the broadcast to the proxy; "
+                    + "it was not sent to other servers.").color(NamedTextColor.RED));
+        }
+        return true;
+    }
+}
@@ -0,0 +1,76 @@
+package me.lubomirstankov.gotcraftproxychat.paper.command;
+
+import me.lubomirstankov.gotcraftproxychat.common.directory.RosterMirror;
+import me.lubomirstankov.gotcraftproxychat.paper.GotCraftPaper;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.format.NamedTextColor;
+import org.bukkit.command.Command;
+import org.bukkit.command.CommandExecutor;
+import org.bukkit.command.CommandSender;
+import org.bukkit.command.TabCompleter;
+import org.bukkit.entity.Player;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Command to send a private message to a player on any server
+ */
+public class MessageCommand implements CommandExecutor, TabCompleter {
+
+    private static final int MAX_SUGGESTIONS = 100;
+
+    private final GotCraftPaper plugin;
+
+    public MessageCommand(GotCraftPaper plugin) {
+        this.plugin = plugin;
+    }
+
+    @Override
+    public boolean onCommand(CommandSender sender, Command command, String label, String[] args) {
+        if (!(sender instanceof Player)) {
+            sender.sendMessage(Component.text("Only players can send private messages.").color(NamedTextColor.RED));
+            return true;
+        }
+
+        if (!sender.hasPermission("gotcraftproxychat.msg")) {
+            sender.sendMessage(Component.text("You don't have permission to use this command!")
+                    .color(NamedTextColor.RED));
+            return true;
+        }
+
+        if (args.length < 2) {
+            sender.sendMessage(Component.text("Usage: /" + label + " <player> <message>").color(NamedTextColor.RED));
+            return true;
+        }
+
+        String message = String.join(" ", Arrays.copyOfRange(args, 1, args.length));
+        plugin.getPrivateMessageService().send((Player) sender, args[0], message);
+        return true;
+    }
+
+    // Completes from the network roster once the proxy has pushed it, otherwise from this server only
+    @Override
+    public List<String> onTabComplete(CommandSender sender, Command command, String alias, String[] args) {
+        if (args.length != 1) {
+            return Collections.emptyList();
+        }
+
+        RosterMirror roster = plugin.getMessengerService().getRosterMirror();
+        if (roster.isSynced()) {
+            return roster.getDirectory().complete(args[0], MAX_SUGGESTIONS);
+        }
+
+        String prefix = args[0].toLowerCase(Locale.ROOT);
+        List<String> names = new ArrayList<>();
+        for (Player player : plugin.getServer().getOnlinePlayers()) {
+            if (player.getName().toLowerCase(Locale.ROOT).startsWith(prefix)) {
+                names.add(player.getName());
+            }
+        }
+        return names;
+    }
+}
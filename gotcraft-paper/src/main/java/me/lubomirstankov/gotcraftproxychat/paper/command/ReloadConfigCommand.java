@@ -26,17 +26,20 @@ public class ReloadConfigCommand implements CommandExecutor {
             return true;
         }
 
-        try {
-            plugin.getConfigManager().reload();
-            sender.sendMessage(Component.text("Configuration reloaded successfully!")
-                    .color(NamedTextColor.GREEN));
-            plugin.getLogger().info(sender.getName() + " reloaded the configuration");
-        } catch (Exception e) {
-            sender.sendMessage(Component.text("Failed to reload configuration: " + e.getMessage())
-                    .color(NamedTextColor.RED));
-            plugin.getLogger().severe("Failed to reload configuration: " + e.getMessage());
-            e.printStackTrace();
-        }
+        // Parse off the main thread; the new configuration is swapped in atomically once it is valid
+        plugin.getServer().getScheduler().runTaskAsynchronously(plugin, () -> {
+            try {
+                plugin.getConfigManager().reload();
+                sender.sendMessage(Component.text("Configuration reloaded successfully!")
+                        .color(NamedTextColor.GREEN));
+                plugin.getLogger().info(sender.getName() + " reloaded the configuration");
+            } catch (Exception e) {
+                sender.sendMessage(Component.text("Failed to reload configuration: " + e.getMessage())
+                        .color(NamedTextColor.RED));
+                plugin.getLogger().severe("Failed to reload configuration: " + e.getMessage());
+                e.printStackTrace();
+            }
+        });
 
         return true;
     }
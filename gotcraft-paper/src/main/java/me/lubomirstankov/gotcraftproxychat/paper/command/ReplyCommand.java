@@ -0,0 +1,45 @@
+package me.lubomirstankov.gotcraftproxychat.paper.command;
+
+import me.lubomirstankov.gotcraftproxychat.paper.GotCraftPaper;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.format.NamedTextColor;
+import org.bukkit.command.Command;
+import org.bukkit.command.CommandExecutor;
+import org.bukkit.command.CommandSender;
+import org.bukkit.entity.Player;
+
+/**
+ * Command to reply to the last private message conversation
+ */
+public class ReplyCommand implements CommandExecutor {
+
+    private final GotCraftPaper plugin;
+
+    public ReplyCommand(GotCraftPaper plugin) {
+        this.plugin = plugin;
+    }
+
+    @Override
+    public boolean onCommand(CommandSender sender, Command command, String label, String[] args) {
+        if (!(sender instanceof Player)) {
+            sender.sendMessage(Component.text("Only players can send private messages.").color(NamedTextColor.RED));
+            return true;
+        }
+
+        if (!sender.hasPermission("gotcraftproxychat.msg")) {
+            sender.sendMessage(Component.text("You don't have permission to use this command!")
+                    .color(NamedTextColor.RED));
+            return true;
+        }
+
+        if (args.length == 0) {
+            sender.sendMessage(Component.text("Usage: /" + label + " <message>").color(NamedTextColor.RED));
+            return true;
+        }
+
+        if (!plugin.getPrivateMessageService().reply((Player) sender, String.join(" ", args))) {
+            sender.sendMessage(Component.text("You have nobody to reply to.").color(NamedTextColor.RED));
+        }
+        return true;
+    }
+}
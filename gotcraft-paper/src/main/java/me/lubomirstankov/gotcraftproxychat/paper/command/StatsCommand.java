@@ -0,0 +1,37 @@
+package me.lubomirstankov.gotcraftproxychat.paper.command;
+
+import me.lubomirstankov.gotcraftproxychat.common.metrics.Metrics;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.format.NamedTextColor;
+import org.bukkit.command.Command;
+import org.bukkit.command.CommandExecutor;
+import org.bukkit.command.CommandSender;
+
+import java.util.Map;
+
+/**
+ * Command to show the plugin's delivery counters
+ */
+public class StatsCommand implements CommandExecutor {
+
+    @Override
+    public boolean onCommand(CommandSender sender, Command command, String label, String[] args) {
+        if (!sender.hasPermission("gotcraftproxychat.stats")) {
+            sender.sendMessage(Component.text("You don't have permission to use this command!")
+                    .color(NamedTextColor.RED));
+            return true;
+        }
+
+        Map<String, Long> values = Metrics.snapshot();
+        if (values.isEmpty()) {
+            sender.sendMessage(Component.text("No chat traffic recorded yet.").color(NamedTextColor.GRAY));
+            return true;
+        }
+
+        sender.sendMessage(Component.text("GotCraftProxyChat statistics:").color(NamedTextColor.GOLD));
+        values.forEach((name, value) -> sender.sendMessage(Component.text(" " + name + ": ")
+                .color(NamedTextColor.GRAY)
+                .append(Component.text(value).color(NamedTextColor.WHITE))));
+        return true;
+    }
+}
@@ -0,0 +1,106 @@
+package me.lubomirstankov.gotcraftproxychat.paper.config;
+
+import me.lubomirstankov.gotcraftproxychat.common.config.ConfigSnapshot;
+import me.lubomirstankov.gotcraftproxychat.common.model.ChatPacketView;
+import me.lubomirstankov.gotcraftproxychat.paper.GotCraftPaper;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Resolves this server's chat settings, preferring the snapshot pushed by the proxy over the local config.yml
+ */
+public class ServerSettings {
+
+    private final GotCraftPaper plugin;
+    private final AtomicReference<ConfigSnapshot> proxySnapshot = new AtomicReference<>();
+
+    // Pre-encoded form of the server name for origin checks on the receive path
+    private volatile EncodedName encodedName;
+
+    public ServerSettings(GotCraftPaper plugin) {
+        this.plugin = plugin;
+    }
+
+    /**
+     * Apply a configuration snapshot received from the proxy
+     * @param snapshot The snapshot
+     * @return true if the snapshot was newer than the current one (or from a restarted proxy) and has been applied
+     */
+    public boolean apply(ConfigSnapshot snapshot) {
+        while (true) {
+            ConfigSnapshot previous = proxySnapshot.get();
+            if (!snapshot.isNewerThan(previous)) {
+                return false;
+            }
+            if (proxySnapshot.compareAndSet(previous, snapshot)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Get the name of this server on the network
+     * @return The server name
+     */
+    public String getServerName() {
+        ConfigSnapshot snapshot = activeSnapshot();
+        if (snapshot != null) {
+            return snapshot.getServerName();
+        }
+        return plugin.getConfigManager().getString("chat.server-name", plugin.getServer().getName());
+    }
+
+    /**
+     * Get the server name encoded for {@link ChatPacketView#isFromServer(byte[])}
+     * Re-encoded only when the name changes
+     * @return The encoded server name
+     */
+    public byte[] getEncodedServerName() {
+        String name = getServerName();
+        EncodedName encoded = encodedName;
+        if (encoded == null || !encoded.name.equals(name)) {
+            encoded = new EncodedName(name, ChatPacketView.encodeServerName(name));
+            encodedName = encoded;
+        }
+        return encoded.bytes;
+    }
+
+    /**
+     * Get the prefix added to chat forwarded from this server
+     * @return The raw MiniMessage prefix
+     */
+    public String getServerPrefix() {
+        ConfigSnapshot snapshot = activeSnapshot();
+        if (snapshot != null && snapshot.getServerPrefix() != null) {
+            return snapshot.getServerPrefix();
+        }
+        return plugin.getConfigManager().getString("chat.server-prefix", "");
+    }
+
+    /**
+     * Get the prefixes the proxy configures for the other servers
+     * @return The raw MiniMessage prefixes, empty until the proxy has pushed its configuration
+     */
+    public List<String> getOtherPrefixes() {
+        ConfigSnapshot snapshot = activeSnapshot();
+        return snapshot != null ? snapshot.getOtherPrefixes() : List.of();
+    }
+
+    private ConfigSnapshot activeSnapshot() {
+        if (!plugin.getConfigManager().getBoolean("chat.use-proxy-config", true)) {
+            return null;
+        }
+        return proxySnapshot.get();
+    }
+
+    private static final class EncodedName {
+        private final String name;
+        private final byte[] bytes;
+
+        private EncodedName(String name, byte[] bytes) {
+            this.name = name;
+            this.bytes = bytes;
+        }
+    }
+}
@@ -7,13 +7,12 @@ import com.comphenix.protocol.events.PacketAdapter;
 import com.comphenix.protocol.events.PacketContainer;
 import com.comphenix.protocol.events.PacketEvent;
 import com.comphenix.protocol.wrappers.WrappedChatComponent;
+import me.lubomirstankov.gotcraftproxychat.common.jfr.ChatCaptureEvent;
 import me.lubomirstankov.gotcraftproxychat.common.model.ChatPacket;
+import me.lubomirstankov.gotcraftproxychat.common.model.ChatPayload;
 import me.lubomirstankov.gotcraftproxychat.paper.GotCraftPaper;
 import org.bukkit.entity.Player;
 
-import java.io.ByteArrayOutputStream;
-import java.io.DataOutputStream;
-import java.io.IOException;
 import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
@@ -22,8 +21,8 @@ public class ProtocolChatListener extends PacketAdapter {
 
     private final GotCraftPaper plugin;
 
-    // ThreadLocal flag to prevent re-intercepting packets we're broadcasting
-    private static final ThreadLocal<Boolean> BROADCASTING = ThreadLocal.withInitial(() -> false);
+    // Packet metadata key marking packets we broadcast ourselves, so they are never re-intercepted
+    private static final String BROADCAST_MARKER = "gotcraft-broadcast";
 
     // Track players who just sent a chat message (marked by AsyncPlayerChatEvent)
     private static final Set<UUID> PLAYER_CHAT_PENDING = ConcurrentHashMap.newKeySet();
@@ -52,11 +51,12 @@ public class ProtocolChatListener extends PacketAdapter {
 
     @Override
     public void onPacketSending(PacketEvent event) {
-        // Do not process packets that were injected by us
-        if (BROADCASTING.get()) return;
         if (event.isCancelled()) return;
 
+        // Do not process packets that were injected by us
         PacketContainer packet = event.getPacket();
+        if (isBroadcast(packet)) return;
+
         PacketType type = packet.getType();
 
         try {
@@ -137,12 +137,14 @@ public class ProtocolChatListener extends PacketAdapter {
     }
 
     private void forwardChatPacket(Player sender, PacketContainer packet, String json) {
+        ChatCaptureEvent captureEvent = new ChatCaptureEvent();
+        captureEvent.begin();
         try {
             byte[] packetData = serializePacket(packet, json);
             if (packetData == null || packetData.length == 0) return;
 
-            String serverName = plugin.getConfigManager().getString("chat.server-name", plugin.getServer().getName());
-            String serverPrefix = plugin.getConfigManager().getString("chat.server-prefix", "");
+            String serverName = plugin.getServerSettings().getServerName();
+            String serverPrefix = plugin.getServerSettings().getServerPrefix();
 
             ChatPacket chatPacket = new ChatPacket(
                     serverName,
@@ -152,6 +154,14 @@ public class ProtocolChatListener extends PacketAdapter {
                     packetData
             );
 
+            if (captureEvent.shouldCommit()) {
+                captureEvent.serverName = serverName;
+                captureEvent.playerName = sender.getName();
+                captureEvent.packetType = packet.getType().name();
+                captureEvent.jsonLength = json.length();
+                captureEvent.commit();
+            }
+
             plugin.getMessengerService().sendChatPacket(chatPacket);
             plugin.getLogger().info("✓ Forwarded chat from " + sender.getName() + " on " + serverName);
         } catch (Exception e) {
@@ -159,19 +169,14 @@ public class ProtocolChatListener extends PacketAdapter {
         }
     }
 
-    private byte[] serializePacket(PacketContainer packet, String json) throws IOException {
-        try (ByteArrayOutputStream bos = new ByteArrayOutputStream();
-             DataOutputStream dos = new DataOutputStream(bos)) {
-
-            dos.writeInt(packet.getType().hashCode());
-
-            UUID senderUuid = packet.getUUIDs().readSafely(0);
-            dos.writeUTF(senderUuid != null ? senderUuid.toString() : "");
-
-            dos.writeUTF(json != null ? json : "");
-
-            return bos.toByteArray();
-        }
+    private byte[] serializePacket(PacketContainer packet, String json) {
+        UUID senderUuid = packet.getUUIDs().readSafely(0);
+        ChatPayload payload = new ChatPayload(
+                packet.getType().hashCode(),
+                senderUuid != null ? senderUuid.toString() : "",
+                json
+        );
+        return payload.encode(ChatPacket.VERSION);
     }
 
     public void register() {
@@ -182,11 +187,17 @@ public class ProtocolChatListener extends PacketAdapter {
         ProtocolLibrary.getProtocolManager().removePacketListener(this);
     }
 
-    public static void startBroadcasting() {
-        BROADCASTING.set(true);
+    /**
+     * Mark a packet as injected by us so the listener ignores it, regardless of the sending thread
+     */
+    public static void markBroadcast(PacketContainer packet) {
+        packet.setMeta(BROADCAST_MARKER, Boolean.TRUE);
     }
 
-    public static void endBroadcasting() {
-        BROADCASTING.set(false);
+    /**
+     * Check whether a packet was injected by us
+     */
+    public static boolean isBroadcast(PacketContainer packet) {
+        return packet.getMeta(BROADCAST_MARKER).isPresent();
     }
 }
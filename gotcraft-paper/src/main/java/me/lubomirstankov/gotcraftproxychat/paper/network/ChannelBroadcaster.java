@@ -0,0 +1,273 @@
+package me.lubomirstankov.gotcraftproxychat.paper.network;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandler;
+import io.netty.channel.ChannelFutureListener;
+import io.netty.channel.ChannelHandlerContext;
+import me.lubomirstankov.gotcraftproxychat.common.metrics.Metrics;
+import me.lubomirstankov.gotcraftproxychat.paper.GotCraftPaper;
+import org.bukkit.entity.Player;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Predicate;
+
+/**
+ * Broadcasts a clientbound packet by encoding it once and writing the same bytes to every player channel
+ */
+public class ChannelBroadcaster {
+
+    // Name of the vanilla packet encoder in the connection pipeline
+    private static final String ENCODER = "encoder";
+
+    // Write failures are counted rather than logged per player
+    private static final ChannelFutureListener COUNT_FAILURES = future -> {
+        if (!future.isSuccess()) {
+            Metrics.counter("delivery.failed").increment();
+        }
+    };
+
+    private final GotCraftPaper plugin;
+    private final boolean supported;
+
+    // Resolved lazily from the first player and reused afterwards
+    private volatile Field listenerField;
+    private volatile Field connectionField;
+    private volatile Field channelField;
+    private volatile Method encodeMethod;
+    private volatile boolean broken;
+
+    public ChannelBroadcaster(GotCraftPaper plugin) {
+        this.plugin = plugin;
+        // ViaVersion translates packets per player inside the pipeline, so shared bytes would be wrong for some clients
+        this.supported = plugin.getServer().getPluginManager().getPlugin("ViaVersion") == null;
+        if (!supported) {
+            plugin.getLogger().info("ViaVersion detected - direct broadcast disabled, using ProtocolLib delivery");
+        }
+    }
+
+    /**
+     * Check whether the direct channel path can be used
+     * @return true if packets can be written straight to player channels
+     */
+    public boolean isAvailable() {
+        return supported && !broken;
+    }
+
+    /**
+     * Resolve the reflective lookups ahead of the first broadcast
+     * Nobody is online at startup, so they are found from the classes alone; whatever cannot be found here
+     * is still resolved from the first recipient.
+     */
+    public void warmUp() {
+        if (!supported) {
+            return;
+        }
+
+        try {
+            Class<?> craftPlayer = Class.forName(plugin.getServer().getClass().getPackageName() + ".entity.CraftPlayer");
+            Class<?> handle = craftPlayer.getMethod("getHandle").getReturnType();
+            Field listener = findField(handle, type -> type.getSimpleName().equals("ServerGamePacketListenerImpl"));
+            Field connection = findField(listener.getType(), type -> type.getSimpleName().equals("Connection"));
+            Field channel = findField(connection.getType(), Channel.class::isAssignableFrom);
+            listenerField = listener;
+            connectionField = connection;
+            channelField = channel;
+        } catch (ReflectiveOperationException | RuntimeException ignored) {
+        }
+
+        try {
+            // The vanilla encoder on Mojang-mapped servers
+            encodeMethod = findEncodeMethod(Class.forName("net.minecraft.network.PacketEncoder"));
+        } catch (ReflectiveOperationException | RuntimeException ignored) {
+        }
+    }
+
+    /**
+     * Encode a packet once and write retained duplicates of the buffer to each recipient's channel
+     * @param nmsPacket The NMS packet handle (e.g. PacketContainer#getHandle())
+     * @param recipients The players to deliver to
+     * @return The recipients that could not be served and need the ProtocolLib fallback
+     */
+    public List<Player> broadcast(Object nmsPacket, Collection<? extends Player> recipients) {
+        List<Player> fallback = new ArrayList<>();
+        if (!isAvailable() || recipients.isEmpty()) {
+            fallback.addAll(recipients);
+            return fallback;
+        }
+
+        List<Player> players = new ArrayList<>(recipients);
+        ByteBuf encoded = null;
+        Object protocol = null;
+        int index = 0;
+
+        try {
+            for (; index < players.size(); index++) {
+                Player player = players.get(index);
+                Channel channel = resolveChannel(player);
+                ChannelHandlerContext ctx = channel != null ? channel.pipeline().context(ENCODER) : null;
+                if (ctx == null || !channel.isActive()) {
+                    fallback.add(player);
+                    continue;
+                }
+
+                Object phase = protocolOf(ctx.handler());
+                if (phase == null) {
+                    // Unknown phase: bytes encoded for one protocol could corrupt another, let ProtocolLib handle it
+                    fallback.add(player);
+                    continue;
+                }
+                if (encoded == null) {
+                    encoded = encode(ctx, nmsPacket);
+                    protocol = phase;
+                } else if (!Objects.equals(protocol, phase)) {
+                    // Player is in a different protocol phase (e.g. reconfiguring), let ProtocolLib handle it
+                    fallback.add(player);
+                    continue;
+                }
+
+                // Writing from the encoder's context skips encoding and only runs compression, framing and encryption
+                ctx.writeAndFlush(encoded.retainedDuplicate()).addListener(COUNT_FAILURES);
+                Metrics.counter("delivery.direct").increment();
+            }
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            broken = true;
+            plugin.getLogger().warning("Direct broadcast unavailable, falling back to ProtocolLib: " + e.getMessage());
+            // Everyone from the failing player onwards has not been written to yet
+            fallback.addAll(players.subList(index, players.size()));
+        } finally {
+            if (encoded != null) {
+                encoded.release();
+            }
+        }
+
+        return fallback;
+    }
+
+    // The vanilla encoder is not thread-safe, so the single encode runs on the channel's event loop and is awaited
+    private ByteBuf encode(ChannelHandlerContext ctx, Object nmsPacket) throws ReflectiveOperationException {
+        if (ctx.executor().inEventLoop()) {
+            return encodeNow(ctx, nmsPacket);
+        }
+
+        try {
+            return ctx.executor().submit(() -> encodeNow(ctx, nmsPacket)).get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof ReflectiveOperationException reflective) throw reflective;
+            if (cause instanceof RuntimeException runtime) throw runtime;
+            throw new IllegalStateException("Failed to encode packet", cause);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while encoding packet", e);
+        }
+    }
+
+    private ByteBuf encodeNow(ChannelHandlerContext ctx, Object nmsPacket) throws ReflectiveOperationException {
+        ChannelHandler encoder = ctx.handler();
+        Method method = encodeMethod;
+        if (method == null || !method.getDeclaringClass().isInstance(encoder)) {
+            method = findEncodeMethod(encoder.getClass());
+            encodeMethod = method;
+        }
+
+        ByteBuf buffer = ctx.alloc().buffer();
+        try {
+            method.invoke(encoder, ctx, nmsPacket, buffer);
+            return buffer;
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            buffer.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Get the Netty channel of a player
+     * @param player The player
+     * @return The channel, or null if it cannot be resolved
+     */
+    public Channel channelOf(Player player) {
+        if (broken) return null;
+        try {
+            return resolveChannel(player);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    private Channel resolveChannel(Player player) throws ReflectiveOperationException {
+        Object handle = player.getClass().getMethod("getHandle").invoke(player);
+
+        if (listenerField == null) {
+            listenerField = findField(handle.getClass(), type -> type.getSimpleName().equals("ServerGamePacketListenerImpl"));
+        }
+        Object listener = listenerField.get(handle);
+        if (listener == null) return null;
+
+        if (connectionField == null) {
+            connectionField = findField(listener.getClass(), type -> type.getSimpleName().equals("Connection"));
+        }
+        Object connection = connectionField.get(listener);
+        if (connection == null) return null;
+
+        if (channelField == null) {
+            channelField = findField(connection.getClass(), Channel.class::isAssignableFrom);
+        }
+        return (Channel) channelField.get(connection);
+    }
+
+    // The encoder holds the protocol it currently encodes for; compare by its id so all recipients share a phase.
+    // Returns null when the phase cannot be identified, which sends the player through ProtocolLib.
+    private Object protocolOf(ChannelHandler encoder) {
+        try {
+            for (Class<?> c = encoder.getClass(); c != null && c != Object.class; c = c.getSuperclass()) {
+                for (Field field : c.getDeclaredFields()) {
+                    if (Modifier.isStatic(field.getModifiers()) || !field.getType().getSimpleName().equals("ProtocolInfo")) {
+                        continue;
+                    }
+                    field.setAccessible(true);
+                    Object info = field.get(encoder);
+                    if (info == null) return null;
+                    Method id = info.getClass().getMethod("id");
+                    id.setAccessible(true);
+                    return id.invoke(info);
+                }
+            }
+        } catch (ReflectiveOperationException | RuntimeException ignored) {
+        }
+        return null;
+    }
+
+    private static Method findEncodeMethod(Class<?> type) throws NoSuchMethodException {
+        for (Class<?> c = type; c != null && c != Object.class; c = c.getSuperclass()) {
+            for (Method method : c.getDeclaredMethods()) {
+                Class<?>[] params = method.getParameterTypes();
+                if (method.getName().equals("encode") && params.length == 3
+                        && params[0] == ChannelHandlerContext.class && params[2] == ByteBuf.class) {
+                    method.setAccessible(true);
+                    return method;
+                }
+            }
+        }
+        throw new NoSuchMethodException("No encode method on " + type.getName());
+    }
+
+    private static Field findField(Class<?> owner, Predicate<Class<?>> typeMatcher) throws NoSuchFieldException {
+        for (Class<?> c = owner; c != null && c != Object.class; c = c.getSuperclass()) {
+            for (Field field : c.getDeclaredFields()) {
+                if (!Modifier.isStatic(field.getModifiers()) && typeMatcher.test(field.getType())) {
+                    field.setAccessible(true);
+                    return field;
+                }
+            }
+        }
+        throw new NoSuchFieldException("No matching field on " + owner.getName());
+    }
+}
@@ -0,0 +1,211 @@
+package me.lubomirstankov.gotcraftproxychat.paper.network;
+
+import com.comphenix.protocol.ProtocolLibrary;
+import com.comphenix.protocol.events.PacketContainer;
+import io.netty.channel.Channel;
+import me.lubomirstankov.gotcraftproxychat.common.concurrent.LaneExecutor;
+import me.lubomirstankov.gotcraftproxychat.common.jfr.ChatDeliveryEvent;
+import me.lubomirstankov.gotcraftproxychat.common.metrics.Latency;
+import me.lubomirstankov.gotcraftproxychat.common.metrics.Metrics;
+import me.lubomirstankov.gotcraftproxychat.common.model.Lane;
+import me.lubomirstankov.gotcraftproxychat.paper.GotCraftPaper;
+import me.lubomirstankov.gotcraftproxychat.paper.listener.ProtocolChatListener;
+import org.bukkit.entity.Player;
+
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Delivers broadcast packets off the receiving thread
+ * Each recipient's send is handed to that player's own Netty event loop where possible.
+ * Every lane has its own single dispatcher, so lines within a lane reach each player in the order they arrived;
+ * priority deliveries never wait behind chat, and bulk deliveries are shed first.
+ */
+public class DeliveryScheduler {
+
+    private static final long FAILURE_LOG_INTERVAL_MILLIS = 60_000L;
+    private static final int BULK_QUEUE_CAPACITY = 256;
+
+    private final GotCraftPaper plugin;
+    private final ChannelBroadcaster channelBroadcaster;
+    private final Map<Lane, ExecutorService> executors = new EnumMap<>(Lane.class);
+    private final Map<Lane, Latency> queueLatency = new EnumMap<>(Lane.class);
+    private final AtomicLong lastFailureLog = new AtomicLong();
+    private final AtomicLong lastReportedFailures = new AtomicLong();
+
+    public DeliveryScheduler(GotCraftPaper plugin, ChannelBroadcaster channelBroadcaster) {
+        this.plugin = plugin;
+        this.channelBroadcaster = channelBroadcaster;
+
+        executors.put(Lane.PRIORITY, new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(), threadFactory("GotCraft Delivery (priority)")));
+        // One dispatcher keeps chat in arrival order; the work per line is only handing writes to event loops
+        executors.put(Lane.NORMAL, new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(), threadFactory("GotCraft Delivery")));
+
+        // A full bulk queue makes room by discarding its oldest delivery
+        executors.put(Lane.BULK, new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(BULK_QUEUE_CAPACITY), threadFactory("GotCraft Delivery (bulk)"),
+                (task, pool) -> {
+                    Metrics.counter(LaneExecutor.metricName(Lane.BULK, "dropped")).increment();
+                    if (!pool.isShutdown()) {
+                        pool.getQueue().poll();
+                        pool.execute(task);
+                    }
+                }));
+
+        for (Lane lane : Lane.values()) {
+            queueLatency.put(lane, Metrics.latency(LaneExecutor.metricName(lane, "queue")));
+        }
+    }
+
+    private static ThreadFactory threadFactory(String name) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, name + " #" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * Schedule delivery of a packet on the normal lane and return immediately
+     * @param packet The packet to deliver
+     * @param recipients The players to deliver to (copied before returning)
+     */
+    public void deliver(PacketContainer packet, Collection<? extends Player> recipients) {
+        deliver(packet, recipients, Lane.NORMAL);
+    }
+
+    /**
+     * Schedule delivery of a packet to the given players and return immediately
+     * @param packet The packet to deliver
+     * @param recipients The players to deliver to (copied before returning)
+     * @param lane The lane whose workers deliver the packet
+     */
+    public void deliver(PacketContainer packet, Collection<? extends Player> recipients, Lane lane) {
+        if (recipients.isEmpty()) {
+            return;
+        }
+
+        // Carried on the packet itself so the listener recognises it on any thread
+        ProtocolChatListener.markBroadcast(packet);
+
+        List<Player> snapshot = List.copyOf(recipients);
+        boolean direct = plugin.getConfigManager().getBoolean("chat.direct-broadcast", true);
+
+        Latency latency = queueLatency.get(lane);
+        long queuedAt = System.nanoTime();
+        try {
+            executors.get(lane).execute(() -> {
+                latency.recordSince(queuedAt);
+                deliverNow(packet, snapshot, direct);
+            });
+        } catch (RejectedExecutionException e) {
+            Metrics.counter("delivery.rejected").add(snapshot.size());
+        }
+    }
+
+    private void deliverNow(PacketContainer packet, List<Player> recipients, boolean direct) {
+        ChatDeliveryEvent deliveryEvent = new ChatDeliveryEvent();
+        deliveryEvent.begin();
+
+        List<Player> remaining = recipients;
+        if (direct) {
+            remaining = channelBroadcaster.broadcast(packet.getHandle(), recipients);
+        }
+
+        for (Player player : remaining) {
+            Channel channel = channelBroadcaster.channelOf(player);
+            if (channel != null && channel.isActive()) {
+                try {
+                    channel.eventLoop().execute(() -> sendViaProtocolLib(player, packet));
+                    continue;
+                } catch (RejectedExecutionException ignored) {
+                    // Event loop is shutting down, send from this thread instead
+                }
+            }
+            sendViaProtocolLib(player, packet);
+        }
+
+        // ProtocolLib sends hop to event loops, so this covers encoding, direct writes and hand-off
+        if (deliveryEvent.shouldCommit()) {
+            deliveryEvent.recipients = recipients.size();
+            deliveryEvent.directWrites = recipients.size() - remaining.size();
+            deliveryEvent.protocolLibSends = remaining.size();
+            deliveryEvent.commit();
+        }
+
+        reportFailures();
+    }
+
+    private void sendViaProtocolLib(Player player, PacketContainer packet) {
+        try {
+            ProtocolLibrary.getProtocolManager().sendServerPacket(player, packet);
+            Metrics.counter("delivery.protocollib").increment();
+        } catch (Exception e) {
+            Metrics.counter("delivery.failed").increment();
+        }
+    }
+
+    // Summarise failures at most once a minute instead of logging every player
+    private void reportFailures() {
+        long now = System.currentTimeMillis();
+        long last = lastFailureLog.get();
+        if (now - last < FAILURE_LOG_INTERVAL_MILLIS || !lastFailureLog.compareAndSet(last, now)) {
+            return;
+        }
+
+        long failures = Metrics.counter("delivery.failed").sum();
+        long previous = lastReportedFailures.getAndSet(failures);
+        if (failures > previous) {
+            plugin.getLogger().warning("Failed to deliver " + (failures - previous) + " chat packets in the last minute");
+        }
+    }
+
+    /**
+     * Start every lane's worker threads now rather than on the first delivery
+     */
+    public void prestart() {
+        for (ExecutorService executor : executors.values()) {
+            if (executor instanceof ThreadPoolExecutor) {
+                ((ThreadPoolExecutor) executor).prestartAllCoreThreads();
+            }
+        }
+    }
+
+    /**
+     * Get the number of deliveries waiting in one lane
+     * @param lane The lane
+     * @return The queued delivery count
+     */
+    public int getQueuedDeliveries(Lane lane) {
+        ExecutorService executor = executors.get(lane);
+        return executor instanceof ThreadPoolExecutor ? ((ThreadPoolExecutor) executor).getQueue().size() : 0;
+    }
+
+    /**
+     * Stop accepting deliveries and wait briefly for queued ones to finish
+     */
+    public void shutdown() {
+        executors.values().forEach(ExecutorService::shutdown);
+        try {
+            for (ExecutorService executor : executors.values()) {
+                executor.awaitTermination(2, TimeUnit.SECONDS);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
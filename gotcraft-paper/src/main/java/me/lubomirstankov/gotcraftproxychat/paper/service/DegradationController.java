@@ -0,0 +1,150 @@
+package me.lubomirstankov.gotcraftproxychat.paper.service;
+
+import me.lubomirstankov.gotcraftproxychat.common.config.ConfigManager;
+import me.lubomirstankov.gotcraftproxychat.common.metrics.Metrics;
+import me.lubomirstankov.gotcraftproxychat.paper.GotCraftPaper;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.util.Locale;
+
+/**
+ * Watches the server's tick time and steps cross-server chat delivery down to cheaper modes while it lags
+ * Steps up immediately when a threshold is crossed, and back down one mode at a time once the tick time
+ * has stayed below the threshold minus the hysteresis for the recovery period.
+ */
+public class DegradationController {
+
+    /**
+     * Delivery modes, cheapest last; each mode includes the savings of the ones before it
+     */
+    public enum Mode {
+        /** Full rendering and delivery */
+        NORMAL(0),
+        /** Skip server prefix rendering (MiniMessage and PlaceholderAPI) */
+        NO_PREFIX(40),
+        /** Buffer remote lines and deliver a few per second, summarising the rest */
+        COALESCE(45),
+        /** Additionally deliver only a sample of bulk lines */
+        SAMPLE(50),
+        /** Additionally hold buffered lines for several seconds before delivering them */
+        DEFER(60);
+
+        private final int defaultMspt;
+
+        Mode(int defaultMspt) {
+            this.defaultMspt = defaultMspt;
+        }
+
+        private String configKey() {
+            return "degradation." + name().toLowerCase(Locale.ROOT).replace('_', '-') + "-mspt";
+        }
+    }
+
+    private static final Mode[] MODES = Mode.values();
+
+    private final GotCraftPaper plugin;
+    private volatile Mode mode = Mode.NORMAL;
+    private volatile double mspt;
+    private long recoveringSince;
+    private BukkitTask task;
+
+    public DegradationController(GotCraftPaper plugin) {
+        this.plugin = plugin;
+    }
+
+    public void initialize() {
+        Metrics.gauge("degradation.mode", () -> mode.ordinal());
+        Metrics.gauge("degradation.mspt", () -> Math.round(mspt));
+        Metrics.gauge("degradation.tps", () -> Math.round(plugin.getServer().getTPS()[0]));
+
+        // Once a second, on the main thread where the tick time is measured
+        task = plugin.getServer().getScheduler().runTaskTimer(plugin, this::evaluate, 20L, 20L);
+    }
+
+    /**
+     * Get the current delivery mode
+     * @return The mode, NORMAL while degradation is disabled
+     */
+    public Mode getMode() {
+        return mode;
+    }
+
+    /**
+     * Check whether the current mode includes the savings of another
+     * @param threshold The mode to compare against
+     * @return true if the current mode is at least as degraded
+     */
+    public boolean isAtLeast(Mode threshold) {
+        return mode.compareTo(threshold) >= 0;
+    }
+
+    private void evaluate() {
+        ConfigManager config = plugin.getConfigManager();
+        mspt = plugin.getServer().getAverageTickTime();
+
+        if (!config.getBoolean("degradation.enabled", true)) {
+            if (mode != Mode.NORMAL) {
+                setMode(Mode.NORMAL);
+            }
+            return;
+        }
+
+        Mode target = Mode.NORMAL;
+        for (int i = 1; i < MODES.length; i++) {
+            if (mspt >= threshold(config, MODES[i])) {
+                target = MODES[i];
+            }
+        }
+
+        if (target.compareTo(mode) > 0) {
+            recoveringSince = 0;
+            setMode(target);
+            return;
+        }
+
+        if (mode == Mode.NORMAL) {
+            return;
+        }
+
+        // Hysteresis: only step down once well below the current mode's threshold, and for long enough
+        int hysteresis = Math.max(0, config.getInt("degradation.hysteresis-mspt", 5));
+        if (mspt >= threshold(config, mode) - hysteresis) {
+            recoveringSince = 0;
+            return;
+        }
+
+        long now = System.currentTimeMillis();
+        long recoverMillis = Math.max(1, config.getInt("degradation.recover-seconds", 10)) * 1000L;
+        if (recoveringSince == 0) {
+            recoveringSince = now;
+        } else if (now - recoveringSince >= recoverMillis) {
+            recoveringSince = now; // The next step down needs its own recovery period
+            setMode(MODES[mode.ordinal() - 1]);
+        }
+    }
+
+    private static int threshold(ConfigManager config, Mode mode) {
+        return config.getInt(mode.configKey(), mode.defaultMspt);
+    }
+
+    private void setMode(Mode next) {
+        Mode previous = mode;
+        mode = next;
+        Metrics.counter("degradation.changes").increment();
+
+        String tick = String.format("%.1f MSPT, %.1f TPS", mspt, plugin.getServer().getTPS()[0]);
+        if (next.compareTo(previous) > 0) {
+            plugin.getLogger().warning("Server is lagging (" + tick + "), chat delivery degraded from "
+                    + previous + " to " + next);
+        } else {
+            plugin.getLogger().info("Server recovered (" + tick + "), chat delivery restored from "
+                    + previous + " to " + next);
+        }
+    }
+
+    public void shutdown() {
+        if (task != null) {
+            task.cancel();
+        }
+    }
+}
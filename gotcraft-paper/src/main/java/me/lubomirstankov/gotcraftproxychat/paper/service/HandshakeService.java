@@ -0,0 +1,90 @@
+package me.lubomirstankov.gotcraftproxychat.paper.service;
+
+import me.lubomirstankov.gotcraftproxychat.common.model.ChatPacket;
+import me.lubomirstankov.gotcraftproxychat.common.protocol.Capabilities;
+import me.lubomirstankov.gotcraftproxychat.common.protocol.FrameType;
+import me.lubomirstankov.gotcraftproxychat.paper.GotCraftPaper;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerJoinEvent;
+
+import java.io.IOException;
+
+/**
+ * Announces this backend's chat protocol versions and features to the proxy and records the proxy's answer
+ * Plugin messages need a player, so the HELLO goes out when the server gets its first player (which is also
+ * the case after a proxy restart) and on every join until the proxy has answered.
+ */
+public class HandshakeService implements Listener {
+
+    private static final String CHANNEL = "gotcraft:chat";
+
+    private final GotCraftPaper plugin;
+    private volatile Capabilities proxy;
+    private volatile int version;
+
+    public HandshakeService(GotCraftPaper plugin) {
+        this.plugin = plugin;
+        this.version = fallbackVersion();
+    }
+
+    @EventHandler
+    public void onJoin(PlayerJoinEvent event) {
+        if (proxy != null && plugin.getServer().getOnlinePlayers().size() > 1) {
+            return;
+        }
+
+        // A tick later, once the client connection is fully set up for plugin messages
+        Player player = event.getPlayer();
+        plugin.getServer().getScheduler().runTaskLater(plugin, () -> {
+            if (player.isOnline()) {
+                player.sendPluginMessage(plugin, CHANNEL, Capabilities.local().toFrame(FrameType.HELLO));
+            }
+        }, 1L);
+    }
+
+    /**
+     * Apply the proxy's HELLO_ACK
+     * @param data The frame
+     * @throws IOException If the frame is malformed
+     */
+    public void handle(byte[] data) throws IOException {
+        Capabilities announced = Capabilities.fromFrame(data);
+        int negotiated = Capabilities.local().negotiate(announced);
+        if (negotiated < 0) {
+            plugin.getLogger().warning("Proxy supports chat protocol " + announced
+                    + ", which this server cannot write; keeping v" + version);
+            proxy = announced;
+            return;
+        }
+
+        if (!announced.equals(proxy)) {
+            plugin.getLogger().info("Proxy supports chat protocol " + announced + ", sending v" + negotiated);
+        }
+        proxy = announced;
+        version = negotiated;
+    }
+
+    /**
+     * Get the chat packet version to send to the proxy
+     * @return The negotiated version, or the configured fallback until the proxy has answered
+     */
+    public int getVersion() {
+        return version;
+    }
+
+    /**
+     * Get what the proxy announced
+     * @return The proxy's capabilities, or null until it has answered
+     */
+    public Capabilities getProxyCapabilities() {
+        return proxy;
+    }
+
+    // Rollouts upgrade the proxy first, so by default the newest version is assumed
+    private int fallbackVersion() {
+        int configured = plugin.getConfigManager().getInt("handshake.fallback-version", ChatPacket.VERSION);
+        return Math.max(ChatPacket.MIN_VERSION, Math.min(ChatPacket.VERSION, configured));
+    }
+}
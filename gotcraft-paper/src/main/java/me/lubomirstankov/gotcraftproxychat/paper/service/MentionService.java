@@ -0,0 +1,111 @@
+package me.lubomirstankov.gotcraftproxychat.paper.service;
+
+import me.lubomirstankov.gotcraftproxychat.common.metrics.Metrics;
+import me.lubomirstankov.gotcraftproxychat.common.text.NameTrie;
+import me.lubomirstankov.gotcraftproxychat.paper.GotCraftPaper;
+import net.kyori.adventure.key.Key;
+import net.kyori.adventure.sound.Sound;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.TextReplacementConfig;
+import net.kyori.adventure.text.minimessage.MiniMessage;
+import net.kyori.adventure.text.minimessage.tag.resolver.Placeholder;
+import net.kyori.adventure.text.serializer.plain.PlainTextComponentSerializer;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Finds "@name" and bare-name mentions of this server's players in cross-server chat
+ * Each line is scanned once against a trie of online names that is updated on join and quit.
+ * Only mentioned players get a personalized, highlighted copy; everyone else shares the single broadcast.
+ * All methods run on the main thread.
+ */
+public class MentionService implements Listener {
+
+    private static final String DEFAULT_FORMAT = "<yellow><mention></yellow>";
+    private static final String DEFAULT_SOUND = "minecraft:entity.experience_orb.pickup";
+
+    private final GotCraftPaper plugin;
+    private final MiniMessage miniMessage = MiniMessage.miniMessage();
+    private final NameTrie<Player> names = new NameTrie<>();
+
+    public MentionService(GotCraftPaper plugin) {
+        this.plugin = plugin;
+    }
+
+    public void initialize() {
+        for (Player player : plugin.getServer().getOnlinePlayers()) {
+            names.put(player.getName(), player);
+        }
+        plugin.getServer().getPluginManager().registerEvents(this, plugin);
+        Metrics.gauge("mentions.names", names::size);
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onJoin(PlayerJoinEvent event) {
+        names.put(event.getPlayer().getName(), event.getPlayer());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onQuit(PlayerQuitEvent event) {
+        names.remove(event.getPlayer().getName());
+    }
+
+    /**
+     * Find the online players a chat line mentions
+     * @param message The line without the server prefix
+     * @return The mentioned players, empty if mentions are disabled
+     */
+    public List<Player> findMentioned(Component message) {
+        if (names.isEmpty() || !plugin.getConfigManager().getBoolean("mentions.enabled", true)) {
+            return List.of();
+        }
+
+        List<Player> mentioned = names.find(PlainTextComponentSerializer.plainText().serialize(message));
+        if (mentioned.isEmpty()) {
+            return mentioned;
+        }
+
+        List<Player> online = new ArrayList<>(mentioned.size());
+        for (Player player : mentioned) {
+            if (player.isOnline()) {
+                online.add(player);
+            }
+        }
+        Metrics.counter("mentions.found").add(online.size());
+        return online;
+    }
+
+    /**
+     * Highlight a player's mentions in a line and play the mention sound to them
+     * @param message The rendered line
+     * @param player The mentioned player
+     * @return The personalized line
+     */
+    public Component personalize(Component message, Player player) {
+        String format = plugin.getConfigManager().getString("mentions.format", DEFAULT_FORMAT);
+        Pattern pattern = Pattern.compile("(?<![A-Za-z0-9_])@?" + Pattern.quote(player.getName()) + "(?![A-Za-z0-9_])",
+                Pattern.CASE_INSENSITIVE);
+        Component highlighted = message.replaceText(TextReplacementConfig.builder()
+                .match(pattern)
+                .replacement(builder -> miniMessage.deserialize(format, Placeholder.unparsed("mention", builder.content())))
+                .build());
+
+        String sound = plugin.getConfigManager().getString("mentions.sound", DEFAULT_SOUND);
+        if (!sound.isEmpty()) {
+            try {
+                player.playSound(Sound.sound(Key.key(sound), Sound.Source.PLAYER, 1.0f, 1.0f));
+            } catch (Exception e) {
+                plugin.getLogger().warning("Invalid mentions.sound '" + sound + "': " + e.getMessage());
+            }
+        }
+        return highlighted;
+    }
+}
@@ -1,49 +1,158 @@
 package me.lubomirstankov.gotcraftproxychat.paper.service;
 
 import com.comphenix.protocol.PacketType;
-import com.comphenix.protocol.ProtocolLibrary;
 import com.comphenix.protocol.events.PacketContainer;
+import me.lubomirstankov.gotcraftproxychat.common.concurrent.LaneExecutor;
+import me.lubomirstankov.gotcraftproxychat.common.config.ConfigSnapshot;
+import me.lubomirstankov.gotcraftproxychat.common.directory.RosterMirror;
+import me.lubomirstankov.gotcraftproxychat.common.jfr.ChatDecodeEvent;
+import me.lubomirstankov.gotcraftproxychat.common.jfr.ChatSerializeEvent;
+import me.lubomirstankov.gotcraftproxychat.common.jfr.PrefixRenderEvent;
+import me.lubomirstankov.gotcraftproxychat.common.metrics.Metrics;
 import me.lubomirstankov.gotcraftproxychat.common.model.ChatPacket;
+import me.lubomirstankov.gotcraftproxychat.common.model.ChatPacketView;
+import me.lubomirstankov.gotcraftproxychat.common.model.ChatPayload;
+import me.lubomirstankov.gotcraftproxychat.common.model.Lane;
+import me.lubomirstankov.gotcraftproxychat.common.protocol.FrameType;
+import me.lubomirstankov.gotcraftproxychat.common.protocol.Fragmenter;
+import me.lubomirstankov.gotcraftproxychat.common.protocol.Reassembler;
+import me.lubomirstankov.gotcraftproxychat.common.text.NameTrie;
 import me.lubomirstankov.gotcraftproxychat.paper.GotCraftPaper;
-import me.lubomirstankov.gotcraftproxychat.paper.listener.ProtocolChatListener;
+import me.lubomirstankov.gotcraftproxychat.paper.network.ChannelBroadcaster;
+import me.lubomirstankov.gotcraftproxychat.paper.network.DeliveryScheduler;
 import me.lubomirstankov.gotcraftproxychat.paper.util.PlaceholderSupport;
 import net.kyori.adventure.text.Component;
 import net.kyori.adventure.text.serializer.gson.GsonComponentSerializer;
+import net.kyori.adventure.text.serializer.plain.PlainTextComponentSerializer;
 import net.kyori.adventure.text.minimessage.MiniMessage;
+import net.kyori.adventure.text.minimessage.tag.resolver.Placeholder;
 import org.bukkit.OfflinePlayer;
 import org.bukkit.entity.Player;
 import org.bukkit.plugin.messaging.PluginMessageListener;
+import org.bukkit.scheduler.BukkitTask;
 
-import java.io.ByteArrayInputStream;
-import java.io.DataInputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class PaperMessengerService implements PluginMessageListener {
 
     private static final String CHANNEL = "gotcraft:chat";
+    // All frames arrive from the proxy, so fragments share a single reassembly source
+    private static final String PROXY_SOURCE = "proxy";
+    private static final String DEFAULT_SUMMARY = "<gray>(+<count> more messages from <servers>)";
+    private static final int MAX_CACHED_PREFIXES = 64;
+    private static final String WARMUP_PREFIX = "<gray>[<bold>warmup</bold>]</gray>";
+    private static final String WARMUP_JSON = "{\"text\":\"\",\"extra\":[{\"text\":\"<warmup> \",\"color\":\"gray\"},"
+            + "{\"text\":\"Hello @warmup\",\"hoverEvent\":{\"action\":\"show_text\",\"contents\":\"warmup\"}}]}";
     private final GotCraftPaper plugin;
     private final MiniMessage miniMessage;
     private final GsonComponentSerializer gsonSerializer;
+    private final ChannelBroadcaster channelBroadcaster;
+    private final DeliveryScheduler deliveryScheduler;
+    private final Reassembler reassembler = new Reassembler(4 * 1024 * 1024, 10_000L);
+    private final RosterMirror rosterMirror = new RosterMirror();
+    private final ProfileCache profileCache;
+
+    // Parsed prefixes without player-specific placeholders, one per origin server in practice
+    private final Map<String, Component> prefixComponents = new ConcurrentHashMap<>();
+
+    // Lines held back while delivery is degraded; only touched on the main thread
+    private final ArrayDeque<ChatPacketView> coalesced = new ArrayDeque<>();
+    private long bulkReceived;
+    private int deferredSeconds;
+    private BukkitTask coalesceTask;
 
     public PaperMessengerService(GotCraftPaper plugin) {
         this.plugin = plugin;
         this.miniMessage = MiniMessage.miniMessage();
         this.gsonSerializer = GsonComponentSerializer.gson();
+        this.channelBroadcaster = new ChannelBroadcaster(plugin);
+        this.deliveryScheduler = new DeliveryScheduler(plugin, channelBroadcaster);
+        this.profileCache = new ProfileCache(plugin);
     }
 
     public void initialize() {
         plugin.getServer().getMessenger().registerOutgoingPluginChannel(plugin, CHANNEL);
         plugin.getServer().getMessenger().registerIncomingPluginChannel(plugin, CHANNEL, this);
+        Metrics.gauge("roster.players", () -> rosterMirror.getDirectory().size());
+        profileCache.initialize();
+        for (Lane lane : Lane.values()) {
+            Metrics.gauge(LaneExecutor.metricName(lane, "queued"), () -> deliveryScheduler.getQueuedDeliveries(lane));
+        }
+        coalesceTask = plugin.getServer().getScheduler().runTaskTimer(plugin, this::flushCoalesced, 20L, 20L);
     }
 
-    public void sendChatPacket(ChatPacket packet) {
+    /**
+     * Get the local mirror of the network roster pushed by the proxy
+     * @return The roster mirror
+     */
+    public RosterMirror getRosterMirror() {
+        return rosterMirror;
+    }
+
+    /**
+     * Send a chat packet to the proxy for fan-out
+     * Plugin messages travel over a player's connection, so nothing can be sent while nobody is online here.
+     * @param packet The packet
+     * @return false if nobody is online to carry it
+     */
+    public boolean sendChatPacket(ChatPacket packet) {
         Player player = plugin.getServer().getOnlinePlayers().stream().findFirst().orElse(null);
         if (player == null) {
-            return;
+            return false;
         }
 
-        byte[] data = packet.serialize();
-        player.sendPluginMessage(plugin, CHANNEL, data);
+        ChatSerializeEvent serializeEvent = new ChatSerializeEvent();
+        serializeEvent.begin();
+
+        // In the version negotiated with the proxy, so a backend can be upgraded before or after it
+        byte[] data = packet.serialize(plugin.getHandshakeService().getVersion());
+        List<byte[]> frames = Fragmenter.split(data);
+
+        if (serializeEvent.shouldCommit()) {
+            serializeEvent.serverName = packet.getServerName();
+            serializeEvent.packetDataSize = packet.getPacketData().length;
+            serializeEvent.serializedSize = data.length;
+            serializeEvent.frames = frames.size();
+            serializeEvent.commit();
+        }
+
+        for (byte[] frame : frames) {
+            player.sendPluginMessage(plugin, CHANNEL, frame);
+        }
+        return true;
+    }
+
+    /**
+     * Send an announcement to every server on the network, including this one
+     * Announcements carry no server prefix and are shown as system messages.
+     * @param message The message
+     * @param senderUuid The UUID of the announcing player, or null for the console
+     * @param senderName The name of the announcer
+     * @param lane PRIORITY for staff broadcasts, BULK for automated announcements
+     * @return false if it was only shown here, since nobody is online to carry it to the proxy
+     */
+    public boolean sendAnnouncement(Component message, UUID senderUuid, String senderName, Lane lane) {
+        String json = gsonSerializer.serialize(message);
+        UUID uuid = senderUuid != null ? senderUuid : new UUID(0L, 0L);
+        byte[] packetData = new ChatPayload(PacketType.Play.Server.SYSTEM_CHAT.hashCode(), uuid.toString(), json)
+                .encode(ChatPacket.VERSION);
+
+        boolean sent = sendChatPacket(new ChatPacket(plugin.getServerSettings().getServerName(), uuid, senderName, "", packetData, lane));
+
+        // The proxy never echoes a packet back to its origin
+        safeSendToPlayers(message, lane);
+        return sent;
     }
 
     @Override
@@ -53,28 +162,121 @@ public class PaperMessengerService implements PluginMessageListener {
         }
 
         try {
-            ChatPacket chatPacket = ChatPacket.deserialize(message);
-            String ourServerName = plugin.getConfigManager().getString("chat.server-name", plugin.getServer().getName());
+            byte[] data = reassembler.accept(PROXY_SOURCE, message);
+            if (data == null) {
+                return; // Waiting for more fragments
+            }
+
+            int type = FrameType.of(data);
+            if (type == FrameType.HELLO_ACK) {
+                plugin.getHandshakeService().handle(data);
+                return;
+            }
+
+            if (type == FrameType.CONFIG_SNAPSHOT) {
+                applyConfigSnapshot(ConfigSnapshot.deserialize(data));
+                return;
+            }
+
+            if (type == FrameType.ROSTER_SNAPSHOT || type == FrameType.ROSTER_DELTA) {
+                if (rosterMirror.accept(data)) {
+                    // Missed a version (e.g. while this server was empty), ask for a full snapshot
+                    player.sendPluginMessage(plugin, CHANNEL, new byte[]{FrameType.ROSTER_RESYNC});
+                }
+                return;
+            }
+
+            if (type == FrameType.PRIVATE_MESSAGE_DELIVERY || type == FrameType.PRIVATE_MESSAGE_FAILED) {
+                plugin.getPrivateMessageService().handle(data);
+                return;
+            }
+
+            // Decode lazily: our own echoes are rejected with a byte comparison before anything is materialized
+            ChatPacketView view = new ChatPacketView(data);
+            if (view.isFromServer(plugin.getServerSettings().getEncodedServerName())) {
+                return;
+            }
 
-            if (chatPacket.getServerName().equalsIgnoreCase(ourServerName)) {
+            // Staff broadcasts always go out at once, however far delivery is degraded
+            DegradationController degradation = plugin.getDegradationController();
+            if (view.getLane() != Lane.PRIORITY && degradation.isAtLeast(DegradationController.Mode.COALESCE)) {
+                hold(view, degradation);
                 return;
             }
 
-            broadcastPacket(chatPacket);
+            broadcastPacket(view);
         } catch (Exception e) {
             plugin.getLogger().severe("Failed to process incoming chat packet: " + e.getMessage());
         }
     }
 
-    private void broadcastPacket(ChatPacket chatPacket) {
-        try {
-            byte[] packetData = chatPacket.getPacketData();
-            ByteArrayInputStream bis = new ByteArrayInputStream(packetData);
-            DataInputStream dis = new DataInputStream(bis);
+    private void hold(ChatPacketView view, DegradationController degradation) {
+        if (view.getLane() == Lane.BULK && degradation.isAtLeast(DegradationController.Mode.SAMPLE)) {
+            int sampleRate = Math.max(1, plugin.getConfigManager().getInt("degradation.sample-rate", 4));
+            if (bulkReceived++ % sampleRate != 0) {
+                Metrics.counter("degradation.sampled-out").increment();
+                return;
+            }
+        }
+
+        int maxBuffered = Math.max(1, plugin.getConfigManager().getInt("degradation.max-buffered", 500));
+        if (coalesced.size() >= maxBuffered) {
+            coalesced.poll();
+            Metrics.counter("degradation.dropped").increment();
+        }
+        coalesced.add(view);
+    }
+
+    // Delivers a few held lines individually and summarises the rest, which are never decoded or rendered
+    private void flushCoalesced() {
+        if (coalesced.isEmpty()) {
+            return;
+        }
+
+        int deferSeconds = Math.max(1, plugin.getConfigManager().getInt("degradation.defer-seconds", 5));
+        if (plugin.getDegradationController().getMode() == DegradationController.Mode.DEFER
+                && ++deferredSeconds < deferSeconds) {
+            return;
+        }
+        deferredSeconds = 0;
+
+        int maxLines = Math.max(0, plugin.getConfigManager().getInt("degradation.coalesce-max-lines", 3));
+        int delivered = 0;
+        int summarised = 0;
+        Set<String> servers = new LinkedHashSet<>();
+        ChatPacketView view;
+        while ((view = coalesced.poll()) != null) {
+            if (delivered < maxLines) {
+                broadcastPacket(view);
+                delivered++;
+            } else {
+                summarised++;
+                servers.add(view.getServerName());
+            }
+        }
+
+        if (summarised > 0) {
+            Metrics.counter("degradation.coalesced").add(summarised);
+            String format = plugin.getConfigManager().getString("degradation.summary-format", DEFAULT_SUMMARY);
+            safeSendToPlayers(miniMessage.deserialize(format,
+                    Placeholder.unparsed("count", String.valueOf(summarised)),
+                    Placeholder.unparsed("servers", String.join(", ", servers))), Lane.NORMAL);
+        }
+    }
 
-            // packetData was written as: int(typeHash), UTF(senderUuid), UTF(json)
-            dis.readInt();
-            String senderUuidStr = dis.readUTF();
+    private void applyConfigSnapshot(ConfigSnapshot snapshot) {
+        if (plugin.getServerSettings().apply(snapshot)) {
+            plugin.getLogger().info("Applied network configuration v" + snapshot.getVersion()
+                    + " from proxy (server: " + snapshot.getServerName() + ")");
+            plugin.getServer().getScheduler().runTaskAsynchronously(plugin, this::warmPrefixes);
+        }
+    }
+
+    private void broadcastPacket(ChatPacketView chatPacket) {
+        ChatDecodeEvent decodeEvent = new ChatDecodeEvent();
+        decodeEvent.begin();
+        try {
+            String senderUuidStr = chatPacket.getSenderUuid();
 
             if (senderUuidStr == null || senderUuidStr.trim().isEmpty()) {
                 plugin.getLogger().warning("Skipping packet with missing sender UUID");
@@ -89,41 +291,81 @@ public class PaperMessengerService implements PluginMessageListener {
                 return;
             }
 
-            String jsonContent = dis.readUTF();
-            if (jsonContent == null || jsonContent.trim().isEmpty()) {
+            if (chatPacket.getJsonLength() == 0) {
                 plugin.getLogger().warning("Skipping packet with empty JSON content");
                 return;
             }
 
             // Safely deserialize JSON to an Adventure Component using Gson only.
-            Component originalMessage = safeDeserializeJson(jsonContent);
+            Component originalMessage = safeDeserializeJson(chatPacket);
             if (originalMessage == null) {
                 plugin.getLogger().warning("Skipping packet - failed to deserialize JSON to Component");
                 return;
             }
 
+            if (decodeEvent.shouldCommit()) {
+                decodeEvent.originServer = chatPacket.getServerName();
+                decodeEvent.frameSize = chatPacket.getSize();
+                decodeEvent.jsonSize = chatPacket.getJsonLength();
+                decodeEvent.commit();
+            }
+
             // Apply placeholder support to server prefix (if present)
-            String rawServerPrefix = chatPacket.getServerPrefix();
-            Component finalMessage = safeCombinePrefixAndJson(rawServerPrefix, originalMessage, senderUuid);
+            PrefixRenderEvent renderEvent = new PrefixRenderEvent();
+            renderEvent.begin();
 
-            // Send to players using ProtocolLib. Wrap to JSON using Gson serializer only.
-            safeSendToPlayers(finalMessage);
+            // Prefix rendering (MiniMessage and PlaceholderAPI) is the first cost dropped while the server lags
+            boolean skipPrefix = chatPacket.getLane() != Lane.PRIORITY
+                    && plugin.getDegradationController().isAtLeast(DegradationController.Mode.NO_PREFIX);
+            String rawServerPrefix = skipPrefix ? "" : chatPacket.getServerPrefix();
+            Component finalMessage = safeCombinePrefixAndJson(rawServerPrefix, originalMessage, senderUuid,
+                    chatPacket.getPlayerName());
+
+            if (renderEvent.shouldCommit()) {
+                renderEvent.originServer = chatPacket.getServerName();
+                renderEvent.prefixLength = rawServerPrefix.length();
+                renderEvent.commit();
+            }
+
+            // Mentioned players get their own highlighted copy; everyone else shares one encoded packet.
+            // Personalizing is skipped while delivery is degraded
+            List<Player> mentioned = plugin.getDegradationController().isAtLeast(DegradationController.Mode.NO_PREFIX)
+                    ? List.of()
+                    : plugin.getMentionService().findMentioned(originalMessage);
+            if (mentioned.isEmpty()) {
+                // Send to players using ProtocolLib. Wrap to JSON using Gson serializer only.
+                safeSendToPlayers(finalMessage, chatPacket.getLane());
+                return;
+            }
+
+            List<Player> others = new ArrayList<>(plugin.getServer().getOnlinePlayers());
+            others.removeAll(mentioned);
+            safeSendToPlayers(finalMessage, chatPacket.getLane(), others);
+            for (Player player : mentioned) {
+                safeSendToPlayers(plugin.getMentionService().personalize(finalMessage, player),
+                        chatPacket.getLane(), List.of(player));
+            }
 
         } catch (Exception e) {
             plugin.getLogger().severe("Failed to broadcast chat packet: " + e.getMessage());
         }
     }
 
-    // Safely deserialize JSON string into an Adventure Component using GsonComponentSerializer only.
+    // Safely deserialize JSON into an Adventure Component using GsonComponentSerializer only.
+    // UTF-8 (v3) JSON is streamed from the received bytes without building an intermediate String.
     // Returns null on fatal failure (caller will handle skipping).
-    private Component safeDeserializeJson(String json) {
-        if (json == null) return null;
+    private Component safeDeserializeJson(ChatPacketView chatPacket) {
         try {
-            return gsonSerializer.deserialize(json);
+            if (chatPacket.isJsonUtf8()) {
+                try (Reader reader = new InputStreamReader(chatPacket.openJson(), StandardCharsets.UTF_8)) {
+                    return gsonSerializer.serializer().fromJson(reader, Component.class);
+                }
+            }
+            return gsonSerializer.deserialize(chatPacket.getJson());
         } catch (Exception e) {
             // Malformed JSON fallback: use plain text to avoid feeding JSON into MiniMessage
             try {
-                return Component.text(json);
+                return Component.text(chatPacket.getJson());
             } catch (Exception ex) {
                 return null;
             }
@@ -132,56 +374,137 @@ public class PaperMessengerService implements PluginMessageListener {
 
     // Combine server prefix (MiniMessage format) with original JSON Component safely.
     // Important: NEVER feed the original JSON into MiniMessage. MiniMessage is used only for the prefix.
-    private Component safeCombinePrefixAndJson(String rawServerPrefix, Component originalMessage, UUID senderUuid) {
+    private Component safeCombinePrefixAndJson(String rawServerPrefix, Component originalMessage, UUID senderUuid,
+                                               String senderName) {
         if (rawServerPrefix == null || rawServerPrefix.trim().isEmpty()) {
             return originalMessage;
         }
 
-        // Apply PlaceholderAPI to the prefix if available
-        OfflinePlayer offline = plugin.getServer().getOfflinePlayer(senderUuid);
-        String applied = PlaceholderSupport.apply(rawServerPrefix, offline);
-
-        Component prefixComponent;
-        try {
-            prefixComponent = miniMessage.deserialize(applied == null ? "" : applied);
-        } catch (Exception e) {
-            // If MiniMessage fails parsing the prefix, fall back to plain text prefix
-            prefixComponent = Component.text(applied == null ? "" : applied);
+        // Apply PlaceholderAPI to the prefix if available. The sender is resolved from the profile cache,
+        // never with a blocking getOfflinePlayer; until a remote profile is resolved only the name from the packet
+        // and player-less placeholders apply
+        String applied = rawServerPrefix;
+        if (PlaceholderSupport.isAvailable() && rawServerPrefix.indexOf('%') >= 0) {
+            ProfileCache.Profile profile = profileCache.resolve(senderUuid, senderName);
+            OfflinePlayer offline = profile.getPlayer();
+            applied = offline != null
+                    ? PlaceholderSupport.apply(rawServerPrefix, offline)
+                    : PlaceholderSupport.applyWithoutPlayer(rawServerPrefix, profile.getUuid(), profile.getName());
         }
 
+        Component prefixComponent = rawServerPrefix.equals(applied) ? cachedPrefix(rawServerPrefix) : parsePrefix(applied);
+
         // Append a space between prefix and message if not already present
         Component spacing = Component.text(" ");
         return prefixComponent.append(spacing).append(originalMessage);
     }
 
-    // Safely serialize Component using Gson and send SYSTEM_CHAT packets to all online players.
-    // Uses ProtocolChatListener broadcasting flag to avoid re-interception.
-    private void safeSendToPlayers(Component component) {
+    // Prefixes that placeholders do not change are parsed once; components are immutable, so sharing them is safe
+    private Component cachedPrefix(String prefix) {
+        Component cached = prefixComponents.get(prefix);
+        if (cached == null) {
+            if (prefixComponents.size() >= MAX_CACHED_PREFIXES) {
+                prefixComponents.clear();
+            }
+            cached = parsePrefix(prefix);
+            prefixComponents.put(prefix, cached);
+        }
+        return cached;
+    }
+
+    private Component parsePrefix(String prefix) {
         try {
-            String modifiedJson = gsonSerializer.serialize(component);
+            return miniMessage.deserialize(prefix == null ? "" : prefix);
+        } catch (Exception e) {
+            // If MiniMessage fails parsing the prefix, fall back to plain text prefix
+            return Component.text(prefix == null ? "" : prefix);
+        }
+    }
 
-            PacketContainer packet = new PacketContainer(PacketType.Play.Server.SYSTEM_CHAT);
-            com.comphenix.protocol.wrappers.WrappedChatComponent wrappedComponent =
-                    com.comphenix.protocol.wrappers.WrappedChatComponent.fromJson(modifiedJson);
-            packet.getChatComponents().write(0, wrappedComponent);
-            packet.getBooleans().write(0, false);
+    // Safely serialize Component using Gson and hand the SYSTEM_CHAT packet to the delivery scheduler.
+    // Delivery happens off this thread; the packet carries a marker so ProtocolChatListener skips it.
+    private void safeSendToPlayers(Component component, Lane lane) {
+        safeSendToPlayers(component, lane, plugin.getServer().getOnlinePlayers());
+    }
 
-            // Prevent ProtocolChatListener from re-intercepting these injected packets
-            ProtocolChatListener.startBroadcasting();
-            try {
-                for (Player onlinePlayer : plugin.getServer().getOnlinePlayers()) {
-                    try {
-                        ProtocolLibrary.getProtocolManager().sendServerPacket(onlinePlayer, packet);
-                    } catch (Exception e) {
-                        plugin.getLogger().warning("Failed to send packet to " + onlinePlayer.getName() + ": " + e.getMessage());
-                    }
-                }
-            } finally {
-                ProtocolChatListener.endBroadcasting();
-            }
+    private void safeSendToPlayers(Component component, Lane lane, Collection<? extends Player> recipients) {
+        try {
+            deliveryScheduler.deliver(toSystemChatPacket(component), recipients, lane);
 
         } catch (Exception e) {
             plugin.getLogger().severe("Failed to send chat Component to players: " + e.getMessage());
         }
     }
+
+    private PacketContainer toSystemChatPacket(Component component) {
+        String modifiedJson = gsonSerializer.serialize(component);
+
+        PacketContainer packet = new PacketContainer(PacketType.Play.Server.SYSTEM_CHAT);
+        com.comphenix.protocol.wrappers.WrappedChatComponent wrappedComponent =
+                com.comphenix.protocol.wrappers.WrappedChatComponent.fromJson(modifiedJson);
+        packet.getChatComponents().write(0, wrappedComponent);
+        packet.getBooleans().write(0, false);
+        return packet;
+    }
+
+    /**
+     * Run the receive path once on a synthetic packet so the first real message does not pay for class loading
+     * Covers decoding, JSON parsing, prefix rendering, mention scanning and packet encoding without delivering
+     * anything, parses the other servers' prefixes known from the pushed config, resolves the direct broadcast
+     * reflection and starts the delivery threads. Safe to call off the main thread.
+     * @return The time taken per stage in milliseconds: decode, render, encode
+     */
+    public long[] warmUp() {
+        long start = System.nanoTime();
+
+        UUID uuid = new UUID(0L, 0L);
+        byte[] packetData = new ChatPayload(PacketType.Play.Server.SYSTEM_CHAT.hashCode(), uuid.toString(), WARMUP_JSON)
+                .encode(ChatPacket.VERSION);
+        byte[] data = new ChatPacket("warmup", uuid, "warmup", WARMUP_PREFIX, packetData, Lane.NORMAL).serialize();
+        ChatPacketView view = new ChatPacketView(data);
+        view.getServerName();
+        view.getSenderUuid();
+        Component message = safeDeserializeJson(view);
+        gsonSerializer.deserialize(view.getJson());
+        long decoded = System.nanoTime();
+
+        // PlaceholderAPI itself is left alone: expansions expect the main thread, only the reflective lookup is loaded
+        PlaceholderSupport.isAvailable();
+        Component rendered = parsePrefix(WARMUP_PREFIX).append(Component.text(" ")).append(message);
+        warmPrefixes();
+        new NameTrie<String>().find(PlainTextComponentSerializer.plainText().serialize(rendered));
+        miniMessage.deserialize(DEFAULT_SUMMARY, Placeholder.unparsed("count", "0"), Placeholder.unparsed("servers", ""));
+        long renderedAt = System.nanoTime();
+
+        toSystemChatPacket(rendered);
+        channelBroadcaster.warmUp();
+        deliveryScheduler.prestart();
+        long encoded = System.nanoTime();
+
+        return new long[]{
+                (decoded - start) / 1_000_000L,
+                (renderedAt - decoded) / 1_000_000L,
+                (encoded - renderedAt) / 1_000_000L
+        };
+    }
+
+    // Chat arrives with its origin's prefix, so this server's own prefix is never rendered here
+    private void warmPrefixes() {
+        for (String prefix : plugin.getServerSettings().getOtherPrefixes()) {
+            // Prefixes with placeholders are rendered per sender and never cached
+            if (!PlaceholderSupport.isAvailable() || prefix.indexOf('%') < 0) {
+                cachedPrefix(prefix);
+            }
+        }
+    }
+
+    /**
+     * Stop the coalescing task and the delivery scheduler
+     */
+    public void shutdown() {
+        if (coalesceTask != null) {
+            coalesceTask.cancel();
+        }
+        deliveryScheduler.shutdown();
+    }
 }
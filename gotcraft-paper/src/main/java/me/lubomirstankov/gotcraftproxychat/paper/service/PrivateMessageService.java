@@ -0,0 +1,120 @@
+package me.lubomirstankov.gotcraftproxychat.paper.service;
+
+import me.lubomirstankov.gotcraftproxychat.common.metrics.Metrics;
+import me.lubomirstankov.gotcraftproxychat.common.model.PrivateMessage;
+import me.lubomirstankov.gotcraftproxychat.common.protocol.FrameType;
+import me.lubomirstankov.gotcraftproxychat.paper.GotCraftPaper;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.minimessage.MiniMessage;
+import net.kyori.adventure.text.minimessage.tag.resolver.Placeholder;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerQuitEvent;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Sends private messages through the proxy and shows the ones routed to players on this server
+ */
+public class PrivateMessageService implements Listener {
+
+    private static final String CHANNEL = "gotcraft:chat";
+    private static final String DEFAULT_SENT = "<gray>[me -> <target>]</gray> <message>";
+    private static final String DEFAULT_RECEIVED = "<gray>[<sender> -> me]</gray> <message>";
+    private static final String DEFAULT_NOT_ONLINE = "<red><target> is not online.";
+    private final GotCraftPaper plugin;
+    private final MiniMessage miniMessage = MiniMessage.miniMessage();
+
+    // Name of the last player each online player messaged or was messaged by
+    private final Map<UUID, String> replyTargets = new ConcurrentHashMap<>();
+
+    public PrivateMessageService(GotCraftPaper plugin) {
+        this.plugin = plugin;
+    }
+
+    /**
+     * Send a private message to a player anywhere on the network
+     * @param sender The sending player
+     * @param targetName The target player's name
+     * @param message The plain message text
+     */
+    public void send(Player sender, String targetName, String message) {
+        replyTargets.put(sender.getUniqueId(), targetName);
+
+        // Even players on this server are messaged through the proxy, which applies the word filter.
+        // The sent line is shown once the proxy confirms the delivery, so a failed message never looks sent
+        PrivateMessage request = PrivateMessage.request(sender.getUniqueId(), sender.getName(), targetName, message);
+        sender.sendPluginMessage(plugin, CHANNEL, request.serialize());
+    }
+
+    /**
+     * Reply to the last player the sender messaged or was messaged by
+     * @param sender The sending player
+     * @param message The plain message text
+     * @return false if there is nobody to reply to
+     */
+    public boolean reply(Player sender, String message) {
+        String targetName = replyTargets.get(sender.getUniqueId());
+        if (targetName == null) {
+            return false;
+        }
+        send(sender, targetName, message);
+        return true;
+    }
+
+    /**
+     * Handle a private message frame routed by the proxy
+     * A delivery reaches both the target's server, which shows the message, and the sender's, which shows the
+     * sent line; when both are on this server, both happen here.
+     * @param data The PRIVATE_MESSAGE_DELIVERY or PRIVATE_MESSAGE_FAILED frame
+     */
+    public void handle(byte[] data) {
+        PrivateMessage message = PrivateMessage.deserialize(data);
+        Player sender = plugin.getServer().getPlayer(message.getSenderUuid());
+
+        if (message.getType() == FrameType.PRIVATE_MESSAGE_FAILED) {
+            if (sender != null) {
+                sender.sendMessage(render("private-messages.not-online", DEFAULT_NOT_ONLINE,
+                        sender.getName(), message.getTargetName(), message.getMessage()));
+            }
+            return;
+        }
+
+        if (sender != null) {
+            sender.sendMessage(render("private-messages.format-sent", DEFAULT_SENT,
+                    sender.getName(), message.getTargetName(), message.getMessage()));
+        }
+
+        Player target = message.getTargetUuid() != null ? plugin.getServer().getPlayer(message.getTargetUuid()) : null;
+        if (target != null) {
+            receive(message.getSenderName(), target, message.getMessage());
+        } else if (sender == null) {
+            // The target switched servers while the message was in flight
+            Metrics.counter("pm.undeliverable").increment();
+        }
+    }
+
+    @EventHandler
+    public void onPlayerQuit(PlayerQuitEvent event) {
+        replyTargets.remove(event.getPlayer().getUniqueId());
+    }
+
+    private void receive(String senderName, Player target, String message) {
+        replyTargets.put(target.getUniqueId(), senderName);
+        target.sendMessage(render("private-messages.format-received", DEFAULT_RECEIVED,
+                senderName, target.getName(), message));
+        Metrics.counter("pm.received").increment();
+    }
+
+    // The message itself is inserted unparsed, so players cannot inject MiniMessage tags
+    private Component render(String path, String defaultFormat, String senderName, String targetName, String message) {
+        String format = plugin.getConfigManager().getString(path, defaultFormat);
+        return miniMessage.deserialize(format,
+                Placeholder.unparsed("sender", senderName),
+                Placeholder.unparsed("target", targetName),
+                Placeholder.unparsed("message", message));
+    }
+}
@@ -0,0 +1,123 @@
+package me.lubomirstankov.gotcraftproxychat.paper.service;
+
+import me.lubomirstankov.gotcraftproxychat.common.metrics.Metrics;
+import me.lubomirstankov.gotcraftproxychat.paper.GotCraftPaper;
+import org.bukkit.OfflinePlayer;
+import org.bukkit.entity.Player;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Bounded cache of remote player profiles used to resolve placeholders in server prefixes
+ * Each profile is seeded with the UUID and name carried by the chat packet. The Bukkit OfflinePlayer, which may
+ * read the user cache and playerdata from disk, is only looked up asynchronously on a miss and is never awaited.
+ */
+public class ProfileCache {
+
+    private static final int DEFAULT_CAPACITY = 1024;
+
+    private final GotCraftPaper plugin;
+    private final int capacity;
+
+    // Access ordered, so the least recently used profile is always the first to evict
+    private final Map<UUID, Profile> profiles;
+
+    public ProfileCache(GotCraftPaper plugin) {
+        this.plugin = plugin;
+        this.capacity = Math.max(16, plugin.getConfigManager().getInt("chat.profile-cache-size", DEFAULT_CAPACITY));
+        this.profiles = new LinkedHashMap<>(64, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<UUID, Profile> eldest) {
+                if (size() > ProfileCache.this.capacity) {
+                    Metrics.counter("profiles.evicted").increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    public void initialize() {
+        Metrics.gauge("profiles.cached", this::size);
+    }
+
+    /**
+     * Get the profile to resolve placeholders for, without blocking
+     * Players on this server are returned directly. For remote players a miss starts an asynchronous lookup,
+     * so later messages from the same player resolve fully; a failed lookup is retried on the next message.
+     * @param uuid The sender's UUID, from the packet
+     * @param name The sender's name, from the packet
+     * @return The profile, whose player is null while it is still being resolved
+     */
+    public Profile resolve(UUID uuid, String name) {
+        Player online = plugin.getServer().getPlayer(uuid);
+        if (online != null) {
+            Profile profile = new Profile(uuid, online.getName());
+            profile.player = online;
+            return profile;
+        }
+
+        Profile profile;
+        boolean lookup = false;
+        synchronized (profiles) {
+            profile = profiles.get(uuid);
+            if (profile == null || !profile.name.equals(name)) {
+                // A renamed player gets a fresh entry, so the name never lags behind the packets
+                profile = new Profile(uuid, name);
+                profiles.put(uuid, profile);
+                lookup = true;
+            }
+        }
+
+        if (!lookup) {
+            Metrics.counter("profiles.hits").increment();
+            return profile;
+        }
+
+        Metrics.counter("profiles.misses").increment();
+        Profile pending = profile;
+        plugin.getServer().getScheduler().runTaskAsynchronously(plugin, () -> {
+            try {
+                pending.player = plugin.getServer().getOfflinePlayer(uuid);
+            } catch (Exception e) {
+                Metrics.counter("profiles.failed").increment();
+                // Unless it was evicted and replaced meanwhile, so the next message starts a fresh lookup
+                synchronized (profiles) {
+                    profiles.remove(uuid, pending);
+                }
+            }
+        });
+        return profile;
+    }
+
+    public long size() {
+        synchronized (profiles) {
+            return profiles.size();
+        }
+    }
+
+    public static final class Profile {
+        private final UUID uuid;
+        private final String name;
+        private volatile OfflinePlayer player; // Set by the asynchronous lookup
+
+        private Profile(UUID uuid, String name) {
+            this.uuid = uuid;
+            this.name = name;
+        }
+
+        public UUID getUuid() {
+            return uuid;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public OfflinePlayer getPlayer() {
+            return player;
+        }
+    }
+}
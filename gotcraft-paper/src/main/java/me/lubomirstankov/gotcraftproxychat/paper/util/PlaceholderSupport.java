@@ -3,6 +3,8 @@ package me.lubomirstankov.gotcraftproxychat.paper.util;
 import org.bukkit.entity.Player;
 import org.bukkit.OfflinePlayer;
 
+import java.util.UUID;
+
 public final class PlaceholderSupport {
     private static final boolean PAPI_PRESENT;
     private static final java.lang.reflect.Method SET_PLACEHOLDERS_METHOD;
@@ -43,6 +45,27 @@ public final class PlaceholderSupport {
         }
     }
 
+    // Resolves only placeholders that need no player, e.g. server-wide ones
+    public static String applyWithoutPlayer(String input) {
+        if (input == null) return null;
+        if (!PAPI_PRESENT) return input;
+        try {
+            return (String) SET_PLACEHOLDERS_METHOD.invoke(null, null, input);
+        } catch (Exception ignored) {
+            return input;
+        }
+    }
+
+    // Fills the player-name placeholders from what the packet carries, then resolves the player-less ones
+    public static String applyWithoutPlayer(String input, UUID uuid, String name) {
+        if (input == null) return null;
+        if (!PAPI_PRESENT) return input;
+        return applyWithoutPlayer(input
+                .replace("%player_name%", name)
+                .replace("%player_displayname%", name)
+                .replace("%player_uuid%", uuid.toString()));
+    }
+
     public static boolean isAvailable() {
         return PAPI_PRESENT;
     }
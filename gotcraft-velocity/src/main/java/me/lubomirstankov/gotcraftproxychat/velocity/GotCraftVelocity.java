@@ -0,0 +1,157 @@
+package me.lubomirstankov.gotcraftproxychat.velocity;
+
+import com.google.inject.Inject;
+import com.velocitypowered.api.event.Subscribe;
+import com.velocitypowered.api.event.proxy.ProxyInitializeEvent;
+import com.velocitypowered.api.event.proxy.ProxyShutdownEvent;
+import com.velocitypowered.api.plugin.Plugin;
+import com.velocitypowered.api.plugin.annotation.DataDirectory;
+import com.velocitypowered.api.proxy.ProxyServer;
+import me.lubomirstankov.gotcraftproxychat.common.metrics.Metrics;
+import me.lubomirstankov.gotcraftproxychat.common.protocol.CapabilityRegistry;
+import me.lubomirstankov.gotcraftproxychat.common.util.DIContainer;
+import me.lubomirstankov.gotcraftproxychat.velocity.command.StatsCommand;
+import me.lubomirstankov.gotcraftproxychat.velocity.service.NetworkConfigService;
+import me.lubomirstankov.gotcraftproxychat.velocity.service.PlayerDirectoryService;
+import me.lubomirstankov.gotcraftproxychat.velocity.service.RosterService;
+import me.lubomirstankov.gotcraftproxychat.velocity.service.VelocityMessengerService;
+import org.slf4j.Logger;
+
+import java.nio.file.Path;
+
+/**
+ * Main plugin class for Velocity proxy
+ */
+@Plugin(
+        id = "gotcraftproxychat",
+        name = "GotCraftProxyChat",
+        version = "1.0-SNAPSHOT",
+        description = "Cross-server chat plugin for Velocity networks",
+        authors = {"lubomirstankov"}
+)
+public final class GotCraftVelocity {
+
+    private final ProxyServer proxy;
+    private final Logger logger;
+    private final Path dataDirectory;
+
+    private NetworkConfigService configService;
+    private CapabilityRegistry capabilities;
+    private PlayerDirectoryService directoryService;
+    private RosterService rosterService;
+    private VelocityMessengerService messengerService;
+
+    @Inject
+    public GotCraftVelocity(ProxyServer proxy, Logger logger, @DataDirectory Path dataDirectory) {
+        this.proxy = proxy;
+        this.logger = logger;
+        this.dataDirectory = dataDirectory;
+    }
+
+    @Subscribe
+    public void onProxyInitialization(ProxyInitializeEvent event) {
+        // Load the central configuration
+        configService = new NetworkConfigService(this);
+
+        // What each backend announced in its handshake, checked before sending it optional frames
+        capabilities = CapabilityRegistry.fromConfig(configService.getConfigManager());
+        DIContainer.register(CapabilityRegistry.class, capabilities);
+
+        // Start pushing the configuration to backends
+        configService.initialize();
+        DIContainer.register(NetworkConfigService.class, configService);
+
+        // Track which server every player is on, for private message routing
+        directoryService = new PlayerDirectoryService(this);
+        directoryService.initialize();
+        DIContainer.register(PlayerDirectoryService.class, directoryService);
+
+        // Publish the network roster to backends
+        rosterService = new RosterService(this);
+        rosterService.initialize();
+        DIContainer.register(RosterService.class, rosterService);
+
+        // Initialize messenger service
+        messengerService = new VelocityMessengerService(this);
+        messengerService.initialize();
+        DIContainer.register(VelocityMessengerService.class, messengerService);
+
+        proxy.getCommandManager().register(
+                proxy.getCommandManager().metaBuilder("gcstats").aliases("gcproxystats").plugin(this).build(),
+                new StatsCommand());
+
+        logger.info("GotCraftProxyChat-Velocity has been enabled!");
+        logger.info("Listening on channel: gotcraft:chat");
+    }
+
+    @Subscribe
+    public void onProxyShutdown(ProxyShutdownEvent event) {
+        if (messengerService != null) {
+            messengerService.shutdown();
+        }
+        if (rosterService != null) {
+            rosterService.shutdown();
+        }
+        if (configService != null) {
+            configService.shutdown();
+        }
+
+        // Clear DI container
+        DIContainer.clear();
+        Metrics.clear();
+
+        logger.info("GotCraftProxyChat-Velocity has been disabled!");
+    }
+
+    public ProxyServer getProxy() {
+        return proxy;
+    }
+
+    public Logger getLogger() {
+        return logger;
+    }
+
+    public Path getDataDirectory() {
+        return dataDirectory;
+    }
+
+    /**
+     * Get the messenger service
+     * @return The messenger service
+     */
+    public VelocityMessengerService getMessengerService() {
+        return messengerService;
+    }
+
+    /**
+     * Get the network configuration service
+     * @return The configuration service
+     */
+    public NetworkConfigService getConfigService() {
+        return configService;
+    }
+
+    /**
+     * Get what each backend announced in its handshake
+     * @return The capability registry
+     */
+    public CapabilityRegistry getCapabilities() {
+        return capabilities;
+    }
+
+    /**
+     * Get the player directory service
+     * @return The directory service
+     */
+    public PlayerDirectoryService getDirectoryService() {
+        return directoryService;
+    }
+
+    /**
+     * Get the roster service
+     * @return The roster service
+     */
+    public RosterService getRosterService() {
+        return rosterService;
+    }
+}
@@ -0,0 +1,35 @@
+package me.lubomirstankov.gotcraftproxychat.velocity.command;
+
+import com.velocitypowered.api.command.CommandSource;
+import com.velocitypowered.api.command.SimpleCommand;
+import me.lubomirstankov.gotcraftproxychat.common.metrics.Metrics;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.format.NamedTextColor;
+
+import java.util.Map;
+
+/**
+ * Command to show the proxy's forwarding and filtering counters
+ */
+public class StatsCommand implements SimpleCommand {
+
+    @Override
+    public void execute(Invocation invocation) {
+        CommandSource source = invocation.source();
+        Map<String, Long> values = Metrics.snapshot();
+        if (values.isEmpty()) {
+            source.sendMessage(Component.text("No chat traffic recorded yet.").color(NamedTextColor.GRAY));
+            return;
+        }
+
+        source.sendMessage(Component.text("GotCraftProxyChat proxy statistics:").color(NamedTextColor.GOLD));
+        values.forEach((name, value) -> source.sendMessage(Component.text(" " + name + ": ")
+                .color(NamedTextColor.GRAY)
+                .append(Component.text(value).color(NamedTextColor.WHITE))));
+    }
+
+    @Override
+    public boolean hasPermission(Invocation invocation) {
+        return invocation.source().hasPermission("gotcraftproxychat.stats");
+    }
+}
@@ -0,0 +1,139 @@
+package me.lubomirstankov.gotcraftproxychat.velocity.service;
+
+import com.velocitypowered.api.event.Subscribe;
+import com.velocitypowered.api.event.player.ServerPostConnectEvent;
+import com.velocitypowered.api.proxy.server.RegisteredServer;
+import me.lubomirstankov.gotcraftproxychat.common.config.ConfigManager;
+import me.lubomirstankov.gotcraftproxychat.common.config.ConfigWatcher;
+import me.lubomirstankov.gotcraftproxychat.common.config.NetworkConfig;
+import me.lubomirstankov.gotcraftproxychat.common.protocol.Capabilities;
+import me.lubomirstankov.gotcraftproxychat.velocity.GotCraftVelocity;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Owns the central network configuration and pushes per-server snapshots to backends
+ */
+public class NetworkConfigService {
+
+    private final GotCraftVelocity plugin;
+    // The parsed file and the config validated from it, always replaced together
+    private final AtomicReference<Loaded> current = new AtomicReference<>();
+
+    // Snapshots are versioned per proxy instance, so backends never compare against another instance's clock
+    private final long epoch = System.currentTimeMillis();
+    private final AtomicLong versions = new AtomicLong();
+    private ConfigWatcher watcher;
+
+    public NetworkConfigService(GotCraftVelocity plugin) {
+        this.plugin = plugin;
+        ConfigManager configManager = new ConfigManager(plugin.getDataDirectory().resolve("config.yml"));
+        configManager.load(getClass().getResourceAsStream("/config.yml"));
+        current.set(new Loaded(configManager, build(configManager)));
+    }
+
+    public void initialize() {
+        plugin.getProxy().getEventManager().register(plugin, this);
+
+        watcher = new ConfigWatcher(getConfigManager().getConfigPath(), this::reload,
+                e -> plugin.getLogger().error("Failed to reload configuration: {}", e.getMessage()));
+        try {
+            watcher.start();
+        } catch (IOException e) {
+            plugin.getLogger().warn("Could not watch config.yml for changes: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Get the current network configuration
+     * @return The configuration snapshot in effect
+     */
+    public NetworkConfig getConfig() {
+        return current.get().config;
+    }
+
+    /**
+     * Get the parsed configuration file the current network configuration was built from
+     * @return The configuration manager, replaced on every successful reload
+     */
+    public ConfigManager getConfigManager() {
+        return current.get().manager;
+    }
+
+    /**
+     * Re-read the configuration file, validate it and push it to every connected backend
+     * Runs on the watcher thread; the previous configuration stays active if validation fails
+     */
+    public void reload() {
+        // Parsed and validated aside; anything thrown here leaves the current file and config in effect
+        ConfigManager configManager = new ConfigManager(getConfigManager().getConfigPath());
+        configManager.reload();
+        NetworkConfig config = build(configManager);
+        current.set(new Loaded(configManager, config));
+        plugin.getLogger().info("Configuration reloaded (version {}), pushing to backends", config.getVersion());
+
+        for (RegisteredServer server : plugin.getProxy().getAllServers()) {
+            String serverName = server.getServerInfo().getName();
+            // Returns false for servers without players; they get the config when someone joins
+            if (supportsConfigPush(serverName)) {
+                server.sendPluginMessage(VelocityMessengerService.CHANNEL, config.snapshotFor(serverName).serialize());
+            }
+        }
+    }
+
+    /**
+     * Send the current configuration to one backend, e.g. once it has announced itself
+     * @param serverName The server
+     */
+    public void push(String serverName) {
+        if (supportsConfigPush(serverName)) {
+            plugin.getProxy().getServer(serverName).ifPresent(server -> server.sendPluginMessage(
+                    VelocityMessengerService.CHANNEL, getConfig().snapshotFor(serverName).serialize()));
+        }
+    }
+
+    @Subscribe
+    public void onServerPostConnect(ServerPostConnectEvent event) {
+        NetworkConfig config = getConfig();
+        event.getPlayer().getCurrentServer()
+                .filter(connection -> supportsConfigPush(connection.getServerInfo().getName()))
+                .ifPresent(connection -> connection.sendPluginMessage(VelocityMessengerService.CHANNEL,
+                        config.snapshotFor(connection.getServerInfo().getName()).serialize()));
+    }
+
+    public void shutdown() {
+        if (watcher != null) {
+            watcher.close();
+        }
+    }
+
+    // Older backends do not know config frames, and unknown ones get the config once they announce themselves
+    private boolean supportsConfigPush(String serverName) {
+        return plugin.getCapabilities().get(serverName).supports(Capabilities.FEATURE_CONFIG_PUSH);
+    }
+
+    private NetworkConfig build(ConfigManager configManager) {
+        NetworkConfig config = NetworkConfig.fromConfig(configManager, epoch, versions.incrementAndGet());
+
+        for (String name : config.getConfiguredServers()) {
+            boolean known = plugin.getProxy().getAllServers().stream()
+                    .anyMatch(server -> server.getServerInfo().getName().equalsIgnoreCase(name));
+            if (!known) {
+                plugin.getLogger().warn("config.yml references unknown server '{}'", name);
+            }
+        }
+        return config;
+    }
+
+    private static final class Loaded {
+        private final ConfigManager manager;
+        private final NetworkConfig config;
+
+        private Loaded(ConfigManager manager, NetworkConfig config) {
+            this.manager = manager;
+            this.config = config;
+        }
+    }
+}
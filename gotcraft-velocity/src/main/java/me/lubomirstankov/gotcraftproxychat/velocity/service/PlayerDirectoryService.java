@@ -0,0 +1,84 @@
+package me.lubomirstankov.gotcraftproxychat.velocity.service;
+
+import com.velocitypowered.api.event.Subscribe;
+import com.velocitypowered.api.event.connection.DisconnectEvent;
+import com.velocitypowered.api.event.player.ServerConnectedEvent;
+import com.velocitypowered.api.event.player.TabCompleteEvent;
+import com.velocitypowered.api.proxy.Player;
+import com.velocitypowered.api.proxy.server.RegisteredServer;
+import me.lubomirstankov.gotcraftproxychat.common.directory.PlayerDirectory;
+import me.lubomirstankov.gotcraftproxychat.common.metrics.Metrics;
+import me.lubomirstankov.gotcraftproxychat.velocity.GotCraftVelocity;
+
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Keeps the network-wide player directory up to date and completes player names for private message commands
+ */
+public class PlayerDirectoryService {
+
+    private static final int MAX_SUGGESTIONS = 100;
+
+    // Backend commands whose first argument is a player anywhere on the network
+    private static final Set<String> PLAYER_COMMANDS = Set.of("gmsg", "gtell", "gw");
+
+    private final GotCraftVelocity plugin;
+    private final PlayerDirectory<RegisteredServer> directory = new PlayerDirectory<>();
+
+    public PlayerDirectoryService(GotCraftVelocity plugin) {
+        this.plugin = plugin;
+    }
+
+    public void initialize() {
+        // Players already online when the plugin is (re)loaded
+        for (Player player : plugin.getProxy().getAllPlayers()) {
+            player.getCurrentServer().ifPresent(connection ->
+                    directory.update(player.getUniqueId(), player.getUsername(), connection.getServer()));
+        }
+
+        Metrics.gauge("directory.players", directory::size);
+        plugin.getProxy().getEventManager().register(plugin, this);
+    }
+
+    /**
+     * Get the player directory
+     * @return The directory
+     */
+    public PlayerDirectory<RegisteredServer> getDirectory() {
+        return directory;
+    }
+
+    // Fired both on first connect and after every server switch
+    @Subscribe
+    public void onServerConnected(ServerConnectedEvent event) {
+        Player player = event.getPlayer();
+        directory.update(player.getUniqueId(), player.getUsername(), event.getServer());
+    }
+
+    @Subscribe
+    public void onDisconnect(DisconnectEvent event) {
+        directory.remove(event.getPlayer().getUniqueId());
+    }
+
+    // Velocity only raises this for 1.12.2 and older clients; newer clients complete from the backend
+    @Subscribe
+    public void onTabComplete(TabCompleteEvent event) {
+        String partial = event.getPartialMessage();
+        if (!partial.startsWith("/")) {
+            return;
+        }
+
+        String[] parts = partial.substring(1).split(" ", -1);
+        if (parts.length != 2) {
+            return;
+        }
+
+        String command = parts[0].toLowerCase(Locale.ROOT);
+        command = command.substring(command.indexOf(':') + 1);
+        if (PLAYER_COMMANDS.contains(command)) {
+            event.getSuggestions().clear();
+            event.getSuggestions().addAll(directory.complete(parts[1], MAX_SUGGESTIONS));
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package me.lubomirstankov.gotcraftproxychat.velocity.service;
+
+import com.velocitypowered.api.event.Subscribe;
+import com.velocitypowered.api.event.connection.DisconnectEvent;
+import com.velocitypowered.api.event.player.ServerConnectedEvent;
+import com.velocitypowered.api.proxy.Player;
+import com.velocitypowered.api.proxy.server.RegisteredServer;
+import com.velocitypowered.api.scheduler.ScheduledTask;
+import me.lubomirstankov.gotcraftproxychat.common.config.ConfigManager;
+import me.lubomirstankov.gotcraftproxychat.common.directory.NetworkRoster;
+import me.lubomirstankov.gotcraftproxychat.common.metrics.Metrics;
+import me.lubomirstankov.gotcraftproxychat.common.protocol.Capabilities;
+import me.lubomirstankov.gotcraftproxychat.common.protocol.Fragmenter;
+import me.lubomirstankov.gotcraftproxychat.velocity.GotCraftVelocity;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Publishes the network roster to backends as batched deltas with periodic full snapshots
+ */
+public class RosterService {
+
+    private static final long RESYNC_COOLDOWN_MILLIS = 1_000L;
+
+    private final GotCraftVelocity plugin;
+    private final NetworkRoster roster = new NetworkRoster();
+    private final Map<String, Long> lastResync = new ConcurrentHashMap<>();
+    private ScheduledTask flushTask;
+    private ScheduledTask snapshotTask;
+
+    public RosterService(GotCraftVelocity plugin) {
+        this.plugin = plugin;
+    }
+
+    public void initialize() {
+        for (Player player : plugin.getProxy().getAllPlayers()) {
+            player.getCurrentServer().ifPresent(connection ->
+                    roster.update(player.getUniqueId(), player.getUsername(), connection.getServerInfo().getName()));
+        }
+
+        plugin.getProxy().getEventManager().register(plugin, this);
+
+        ConfigManager config = plugin.getConfigService().getConfigManager();
+        long flushMillis = Math.max(50, config.getInt("roster.flush-millis", 200));
+        long snapshotSeconds = Math.max(10, config.getInt("roster.snapshot-interval-seconds", 300));
+
+        flushTask = plugin.getProxy().getScheduler().buildTask(plugin, this::flush)
+                .delay(flushMillis, TimeUnit.MILLISECONDS)
+                .repeat(flushMillis, TimeUnit.MILLISECONDS)
+                .schedule();
+        snapshotTask = plugin.getProxy().getScheduler().buildTask(plugin, this::broadcastSnapshot)
+                .delay(snapshotSeconds, TimeUnit.SECONDS)
+                .repeat(snapshotSeconds, TimeUnit.SECONDS)
+                .schedule();
+    }
+
+    @Subscribe
+    public void onServerConnected(ServerConnectedEvent event) {
+        Player player = event.getPlayer();
+        roster.update(player.getUniqueId(), player.getUsername(), event.getServer().getServerInfo().getName());
+    }
+
+    @Subscribe
+    public void onDisconnect(DisconnectEvent event) {
+        roster.remove(event.getPlayer().getUniqueId());
+    }
+
+    /**
+     * Send a full snapshot to a backend whose mirror fell behind
+     * @param serverName The requesting server
+     */
+    public void resync(String serverName) {
+        if (!supportsRoster(serverName)) {
+            return;
+        }
+
+        long now = System.currentTimeMillis();
+        Long last = lastResync.put(serverName, now);
+        if (last != null && now - last < RESYNC_COOLDOWN_MILLIS) {
+            return;
+        }
+
+        plugin.getProxy().getServer(serverName).ifPresent(server -> {
+            Metrics.counter("roster.resyncs").increment();
+            send(server, Fragmenter.split(roster.snapshot()));
+        });
+    }
+
+    private void flush() {
+        try {
+            byte[] delta = roster.drainDelta();
+            if (delta != null) {
+                Metrics.counter("roster.deltas").increment();
+                broadcast(Fragmenter.split(delta));
+            }
+        } catch (Exception e) {
+            plugin.getLogger().error("Failed to publish roster changes: {}", e.getMessage());
+        }
+    }
+
+    private void broadcastSnapshot() {
+        try {
+            Metrics.counter("roster.snapshots").increment();
+            broadcast(Fragmenter.split(roster.snapshot()));
+        } catch (Exception e) {
+            plugin.getLogger().error("Failed to publish roster snapshot: {}", e.getMessage());
+        }
+    }
+
+    // Empty servers drop the message; their mirror catches up by resync when someone joins
+    private void broadcast(List<byte[]> frames) {
+        for (RegisteredServer server : plugin.getProxy().getAllServers()) {
+            if (supportsRoster(server.getServerInfo().getName())) {
+                send(server, frames);
+            }
+        }
+    }
+
+    // Older backends do not know roster frames, and unknown ones get a snapshot once they announce themselves
+    private boolean supportsRoster(String serverName) {
+        return plugin.getCapabilities().get(serverName).supports(Capabilities.FEATURE_ROSTER);
+    }
+
+    private void send(RegisteredServer server, List<byte[]> frames) {
+        for (byte[] frame : frames) {
+            if (!server.sendPluginMessage(VelocityMessengerService.CHANNEL, frame)) {
+                break;
+            }
+        }
+    }
+
+    public void shutdown() {
+        if (flushTask != null) {
+            flushTask.cancel();
+        }
+        if (snapshotTask != null) {
+            snapshotTask.cancel();
+        }
+    }
+}
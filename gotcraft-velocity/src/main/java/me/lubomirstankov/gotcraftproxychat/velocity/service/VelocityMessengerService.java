@@ -0,0 +1,140 @@
+package me.lubomirstankov.gotcraftproxychat.velocity.service;
+
+import com.velocitypowered.api.event.PostOrder;
+import com.velocitypowered.api.event.Subscribe;
+import com.velocitypowered.api.event.connection.DisconnectEvent;
+import com.velocitypowered.api.event.connection.PluginMessageEvent;
+import com.velocitypowered.api.event.player.KickedFromServerEvent;
+import com.velocitypowered.api.event.player.ServerConnectedEvent;
+import com.velocitypowered.api.proxy.Player;
+import com.velocitypowered.api.proxy.ServerConnection;
+import com.velocitypowered.api.proxy.messages.MinecraftChannelIdentifier;
+import com.velocitypowered.api.proxy.server.RegisteredServer;
+import me.lubomirstankov.gotcraftproxychat.common.directory.PlayerDirectory;
+import me.lubomirstankov.gotcraftproxychat.common.proxy.ProxyChatPipeline;
+import me.lubomirstankov.gotcraftproxychat.common.proxy.ProxyPlatform;
+import me.lubomirstankov.gotcraftproxychat.velocity.GotCraftVelocity;
+
+import java.util.Collection;
+
+/**
+ * Feeds gotcraft:chat plugin messages from backends into the shared {@link ProxyChatPipeline}
+ */
+public class VelocityMessengerService implements ProxyPlatform<RegisteredServer> {
+
+    public static final MinecraftChannelIdentifier CHANNEL = MinecraftChannelIdentifier.from("gotcraft:chat");
+    private final GotCraftVelocity plugin;
+    private final ProxyChatPipeline<RegisteredServer> pipeline;
+
+    public VelocityMessengerService(GotCraftVelocity plugin) {
+        this.plugin = plugin;
+        this.pipeline = new ProxyChatPipeline<>(this, plugin.getConfigService().getConfigManager(),
+                plugin.getCapabilities(), plugin.getConfigService()::getConfig);
+    }
+
+    public void initialize() {
+        plugin.getProxy().getChannelRegistrar().register(CHANNEL);
+        plugin.getProxy().getEventManager().register(plugin, this);
+        pipeline.initialize();
+    }
+
+    // Not async: the handler only claims the message and queues it, which is cheaper than an event thread hop.
+    // Last in line so no other plugin can forward it: a client must never reach a backend on our channel,
+    // or it could forge config snapshots and private message deliveries.
+    @Subscribe(order = PostOrder.LAST, async = false)
+    public void onPluginMessage(PluginMessageEvent event) {
+        if (!event.getIdentifier().equals(CHANNEL)) {
+            return;
+        }
+
+        // Never pass our channel through to clients or other servers
+        event.setResult(PluginMessageEvent.ForwardResult.handled());
+
+        if (!(event.getSource() instanceof ServerConnection)) {
+            return;
+        }
+
+        pipeline.receive(((ServerConnection) event.getSource()).getServerInfo().getName(), event.getData());
+    }
+
+    @Subscribe
+    public void onDisconnect(DisconnectEvent event) {
+        pipeline.playerLeft(event.getPlayer().getUniqueId());
+        event.getPlayer().getCurrentServer().ifPresent(connection -> leftServer(connection.getServer(), event.getPlayer()));
+    }
+
+    @Subscribe
+    public void onServerConnected(ServerConnectedEvent event) {
+        event.getPreviousServer().ifPresent(server -> leftServer(server, event.getPlayer()));
+    }
+
+    @Subscribe
+    public void onKickedFromServer(KickedFromServerEvent event) {
+        leftServer(event.getServer(), event.getPlayer());
+    }
+
+    // The leaving player may still be listed as connected
+    private void leftServer(RegisteredServer server, Player player) {
+        if (server.getPlayersConnected().stream().allMatch(player::equals)) {
+            plugin.getCapabilities().forget(server.getServerInfo().getName());
+        }
+    }
+
+    @Override
+    public Collection<RegisteredServer> getServers() {
+        return plugin.getProxy().getAllServers();
+    }
+
+    @Override
+    public RegisteredServer getServer(String serverName) {
+        return plugin.getProxy().getServer(serverName).orElse(null);
+    }
+
+    @Override
+    public String getName(RegisteredServer server) {
+        return server.getServerInfo().getName();
+    }
+
+    // Queued on the target connection's event loop; returns false when nobody is online there
+    @Override
+    public boolean send(RegisteredServer server, byte[] frame) {
+        return server.sendPluginMessage(CHANNEL, frame);
+    }
+
+    @Override
+    public PlayerDirectory<RegisteredServer> getDirectory() {
+        return plugin.getDirectoryService().getDirectory();
+    }
+
+    @Override
+    public void resyncRoster(String serverName) {
+        plugin.getRosterService().resync(serverName);
+    }
+
+    @Override
+    public void pushConfig(String serverName) {
+        plugin.getConfigService().push(serverName);
+    }
+
+    @Override
+    public void info(String message) {
+        plugin.getLogger().info(message);
+    }
+
+    @Override
+    public void warning(String message) {
+        plugin.getLogger().warn(message);
+    }
+
+    @Override
+    public void error(String message) {
+        plugin.getLogger().error(message);
+    }
+
+    /**
+     * Stop the forwarding workers of all lanes, letting queued messages finish briefly
+     */
+    public void shutdown() {
+        pipeline.shutdown();
+    }
+}